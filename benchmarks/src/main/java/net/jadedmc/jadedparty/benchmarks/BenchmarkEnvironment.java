@@ -0,0 +1,228 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.benchmarks;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.party.PartyManager;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigManager;
+import net.jadedmc.jadedparty.bukkit.settings.HookManager;
+import net.jadedmc.jadedparty.bukkit.utils.JadedUtils;
+import net.jadedmc.jadedparty.bukkit.utils.logging.PartyLogger;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.platform.bukkit.BukkitAudiences;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.mockito.MockedStatic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+/**
+ * Creates a stand-in server and plugin instance, so the plugin's classes can be benchmarked without running Minecraft.
+ * The server and plugin are Mockito stubs, while the configuration, cache and party manager are the real classes
+ * using the default config.yml and messages.yml.
+ * Scheduled async tasks run immediately on the calling thread, so the work they do is part of the measurement.
+ * Chat sent to players is parsed as usual, then discarded.
+ */
+public final class BenchmarkEnvironment {
+    private static JadedPartyBukkit plugin;
+
+    private BenchmarkEnvironment() {}
+
+    /**
+     * Gets the stub plugin instance, creating it the first time it is used.
+     * @return Plugin instance with a real ConfigManager, MemoryCache and PartyManager.
+     */
+    @NotNull
+    public static synchronized JadedPartyBukkit getPlugin() {
+        if(plugin == null) {
+            plugin = createPlugin();
+        }
+
+        return plugin;
+    }
+
+    /**
+     * Creates a stub Bukkit player.
+     * @param uuid UUID of the player.
+     * @param name Username of the player.
+     * @return Stub player.
+     */
+    @NotNull
+    public static Player createPlayer(@NotNull final UUID uuid, @NotNull final String name) {
+        final Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.getName()).thenReturn(name);
+        return player;
+    }
+
+    /**
+     * Creates a snapshot of a party with random members.
+     * The first member is the leader, and the rest are regular members.
+     * @param nanoID NanoID of the party.
+     * @param size Number of players in the party.
+     * @param firstPlayer Number used in the username of the first player, so usernames are unique across parties.
+     * @return Created snapshot.
+     */
+    @NotNull
+    public static PartySnapshot createParty(@NotNull final String nanoID, final int size, final int firstPlayer) {
+        final List<PartyPlayerSnapshot> players = new ArrayList<>(size);
+
+        for(int i = 0; i < size; i++) {
+            final PartyRole role = i == 0 ? PartyRole.LEADER : PartyRole.MEMBER;
+            players.add(new PartyPlayerSnapshot(UUID.randomUUID(), "Player" + (firstPlayer + i), role, "&7", nanoID));
+        }
+
+        return new PartySnapshot(nanoID, players, List.of(UUID.randomUUID()));
+    }
+
+    /**
+     * Sets up the stub server and plugin.
+     * @return Stub plugin.
+     */
+    @NotNull
+    private static JadedPartyBukkit createPlugin() {
+        final Logger logger = Logger.getLogger("JadedParty");
+
+        // Scheduler that runs async tasks right away, and ignores repeating ones.
+        final BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(scheduler.runTaskAsynchronously(any(Plugin.class), any(Runnable.class))).thenAnswer(invocation -> {
+            invocation.getArgument(1, Runnable.class).run();
+            return null;
+        });
+        when(scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong())).thenReturn(mock(BukkitTask.class));
+        when(scheduler.runTaskTimerAsynchronously(any(Plugin.class), any(Runnable.class), anyLong(), anyLong())).thenReturn(mock(BukkitTask.class));
+
+        final Server server = mock(Server.class);
+        when(server.getLogger()).thenReturn(logger);
+        when(server.getName()).thenReturn("Benchmark");
+        when(server.getVersion()).thenReturn("Benchmark");
+        when(server.getBukkitVersion()).thenReturn("1.8.8-R0.1-SNAPSHOT");
+        when(server.getScheduler()).thenReturn(scheduler);
+        Bukkit.setServer(server);
+
+        // Copy the default configuration files into a temporary data folder.
+        final File dataFolder;
+        try {
+            dataFolder = Files.createTempDirectory("jadedparty-benchmarks").toFile();
+            dataFolder.deleteOnExit();
+            copyResource("messages.yml", dataFolder);
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        final JadedPartyBukkit plugin = mock(JadedPartyBukkit.class);
+        final HookManager hookManager = mock(HookManager.class);
+        final PartyLogger partyLogger = new PartyLogger(plugin);
+        final YamlConfiguration config = YamlConfiguration.loadConfiguration(new InputStreamReader(getResource("config.yml"), StandardCharsets.UTF_8));
+
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getLogger()).thenReturn(logger);
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getHookManager()).thenReturn(hookManager);
+        when(plugin.getPartyLogger()).thenReturn(partyLogger);
+
+        // Created in the same order as the plugin's onEnable.
+        final ConfigManager configManager = new ConfigManager(plugin);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+
+        final PartyManager partyManager = new PartyManager(plugin);
+        when(plugin.getPartyManager()).thenReturn(partyManager);
+
+        initializeChat(plugin);
+        return plugin;
+    }
+
+    /**
+     * Sets up the plugin's static chat utilities, with audiences that discard everything sent to them.
+     * @param plugin Stub plugin.
+     */
+    private static void initializeChat(@NotNull final JadedPartyBukkit plugin) {
+        final BukkitAudiences audiences = mock(BukkitAudiences.class);
+        when(audiences.sender(any(CommandSender.class))).thenReturn(Audience.empty());
+        when(audiences.player(any(Player.class))).thenReturn(Audience.empty());
+        when(audiences.player(any(UUID.class))).thenReturn(Audience.empty());
+        when(audiences.players()).thenReturn(Audience.empty());
+
+        try(MockedStatic<BukkitAudiences> factory = mockStatic(BukkitAudiences.class)) {
+            factory.when(() -> BukkitAudiences.create(any(Plugin.class))).thenReturn(audiences);
+            new JadedUtils(plugin);
+        }
+    }
+
+    /**
+     * Copies one of the plugin's resources into a folder.
+     * @param name Name of the resource.
+     * @param folder Folder to copy it to.
+     * @throws IOException If the file could not be written.
+     */
+    private static void copyResource(@NotNull final String name, @NotNull final File folder) throws IOException {
+        try(InputStream stream = getResource(name)) {
+            final File file = new File(folder, name);
+            Files.copy(stream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Opens one of the plugin's resources.
+     * @param name Name of the resource.
+     * @return Stream of the resource.
+     */
+    @NotNull
+    private static InputStream getResource(@NotNull final String name) {
+        return Objects.requireNonNull(JadedPartyBukkit.class.getResourceAsStream("/" + name), "Missing resource " + name);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.benchmarks;
+
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning configured messages into chat components.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatBenchmark {
+    private static final String MESSAGE = "<green><bold>Party</bold> <dark_gray>» &7Notch <green>has joined the party.";
+    private static final String LEGACY_MESSAGE = "&a&lParty &8» &7Notch &ahas joined the party. &c&oWelcome&r!";
+    private static final String CENTERED_LINE = "<green><bold>Party Invite</bold></green>";
+    private static final String CENTERED_MESSAGE = """
+            <green><st>                                                                             </st>
+            <center><green><bold>Party Invite</bold></green>
+            <center><gray>Notch <green>has invited you to join their party!
+            <center><click:run_command:'/party accept Notch'><hover:show_text:'<yellow>Click to accept'><yellow><bold>Click Here to Join!</bold></yellow></hover></click>
+            <green><st>                                                                             </st>""";
+
+    @Setup
+    public void setup() {
+        // ChatUtils reads the server version.
+        BenchmarkEnvironment.getPlugin();
+    }
+
+    @Benchmark
+    public Component translate() {
+        return ChatUtils.translate(MESSAGE);
+    }
+
+    @Benchmark
+    public Component translateCentered() {
+        return ChatUtils.translate(CENTERED_MESSAGE);
+    }
+
+    @Benchmark
+    public String replaceLegacy() {
+        return ChatUtils.replaceLegacy(LEGACY_MESSAGE);
+    }
+
+    @Benchmark
+    public String centerText() {
+        return ChatUtils.centerText(CENTERED_LINE);
+    }
+
+    @Benchmark
+    public String centerLines() {
+        return ChatUtils.centerLines(CENTERED_MESSAGE);
+    }
+}
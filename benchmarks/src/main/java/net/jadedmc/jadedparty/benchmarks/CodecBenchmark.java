@@ -0,0 +1,92 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.benchmarks;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.party.Party;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting parties to and from the documents stored in the cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+    @Param({"2", "8", "32"})
+    private int partySize;
+
+    private JadedPartyBukkit plugin;
+    private PartySnapshot snapshot;
+    private Party party;
+    private Document document;
+    private String json;
+
+    @Setup
+    public void setup() {
+        this.plugin = BenchmarkEnvironment.getPlugin();
+        this.snapshot = BenchmarkEnvironment.createParty("benchmark", partySize, 0);
+        this.party = new Party(plugin, snapshot);
+        this.document = snapshot.toDocument();
+        this.json = document.toJson();
+    }
+
+    @Benchmark
+    public Document partyToDocument() {
+        return party.toDocument();
+    }
+
+    @Benchmark
+    public Party partyFromDocument() {
+        return new Party(plugin, document);
+    }
+
+    @Benchmark
+    public Document snapshotToDocument() {
+        return snapshot.toDocument();
+    }
+
+    @Benchmark
+    public PartySnapshot snapshotFromDocument() {
+        return PartySnapshot.fromDocument(document);
+    }
+
+    @Benchmark
+    public String snapshotToJson() {
+        return snapshot.toDocument().toJson();
+    }
+
+    @Benchmark
+    public PartySnapshot snapshotFromJson() {
+        return PartySnapshot.fromDocument(Document.parse(json));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.benchmarks;
+
+import net.jadedmc.jadedparty.bukkit.settings.ConfigManager;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading configurable messages, with and without placeholders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigBenchmark {
+    private ConfigManager configManager;
+    private Player player;
+    private Tuple<String, String> placeholder;
+
+    @Setup
+    public void setup() {
+        this.configManager = BenchmarkEnvironment.getPlugin().getConfigManager();
+        this.player = BenchmarkEnvironment.createPlayer(UUID.randomUUID(), "Notch");
+        this.placeholder = new Tuple<>("%target_name%", "Jeb_");
+    }
+
+    @Benchmark
+    public String getMessage() {
+        return configManager.getMessage(ConfigMessage.PARTY_LEAVE_PLAYER_LEFT);
+    }
+
+    @Benchmark
+    public String getMessageWithPlaceholders() {
+        return configManager.getMessage(player, ConfigMessage.PARTY_INVITE_INVITE_RECEIVED, placeholder);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.benchmarks;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.cache.MessageProcessor;
+import net.jadedmc.jadedparty.bukkit.party.Party;
+import net.jadedmc.jadedparty.bukkit.utils.player.PlayerPresence;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures processing the Pub/Sub messages every server receives.
+ * Includes the work done by the async task the message is handed to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageProcessorBenchmark {
+    @Param({"8"})
+    private int partySize;
+
+    @Param({"4"})
+    private int onlineMembers;
+
+    private MessageProcessor messageProcessor;
+    private String chatMessage;
+    private String updateMessage;
+
+    @Setup
+    public void setup() {
+        final JadedPartyBukkit plugin = BenchmarkEnvironment.getPlugin();
+        this.messageProcessor = new MessageProcessor(plugin);
+
+        // A party that is cached locally and in the cache, so "update" does the full refresh.
+        final PartySnapshot snapshot = BenchmarkEnvironment.createParty("benchmark", partySize, 0);
+        plugin.getConfigManager().getCache().setParty(snapshot);
+        plugin.getPartyManager().cacheParty(new Party(plugin, snapshot));
+
+        // A chat message for every member of the party. Some of them are on this server, so the message is parsed and delivered.
+        final StringJoiner targets = new StringJoiner(",");
+        int online = 0;
+        for(final PartyPlayerSnapshot player : snapshot.players()) {
+            targets.add(player.uniqueId().toString());
+
+            if(online < onlineMembers) {
+                PlayerPresence.add(BenchmarkEnvironment.createPlayer(player.uniqueId(), player.username()));
+                online++;
+            }
+        }
+
+        this.chatMessage = "message " + targets + " <green><bold>Party</bold> <dark_gray>» <gray>Notch <green>has joined the party.";
+        this.updateMessage = "update " + snapshot.nanoID();
+    }
+
+    @TearDown
+    public void tearDown() {
+        PlayerPresence.clear();
+    }
+
+    @Benchmark
+    public void chatMessage() {
+        messageProcessor.process(CacheKeys.PLUGIN_CHANNEL, chatMessage);
+    }
+
+    @Benchmark
+    public void partyUpdate() {
+        messageProcessor.process(CacheKeys.PARTY_CHANNEL, updateMessage);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.benchmarks;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.cache.Cache;
+import net.jadedmc.jadedparty.bukkit.party.PartyIdAllocator;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigSnapshot;
+import net.jadedmc.nanoid.NanoID;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating and reserving party ids with the default settings, using the in-memory cache.
+ * Reserved ids are released again, so the cache does not grow during the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PartyIdBenchmark {
+    private Cache cache;
+    private PartyIdAllocator allocator;
+    private NanoID.Settings settings;
+
+    @Setup
+    public void setup() {
+        final JadedPartyBukkit plugin = BenchmarkEnvironment.getPlugin();
+        final ConfigSnapshot config = plugin.getConfigManager().getSnapshot();
+
+        this.cache = plugin.getConfigManager().getCache();
+        this.allocator = new PartyIdAllocator(plugin);
+        this.settings = new NanoID.Settings()
+                .setAlphabet(config.partyIdAlphabet())
+                .setMinimumSize(config.partyIdMinLength())
+                .setMaximumSize(config.partyIdMaxLength())
+                .setPrefix(config.partyIdPrefix());
+    }
+
+    @Benchmark
+    public NanoID generate() {
+        return new NanoID(settings);
+    }
+
+    @Benchmark
+    public NanoID allocate() {
+        final NanoID nanoID = allocator.allocate();
+        cache.deletePartyDocument(nanoID.toString());
+        return nanoID;
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        final String nanoID = new NanoID(settings).toString();
+        final boolean reserved = cache.reservePartyID(nanoID);
+        cache.deletePartyDocument(nanoID);
+        return reserved;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.benchmarks;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.party.Party;
+import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
+import net.jadedmc.jadedparty.bukkit.party.PartySet;
+import net.jadedmc.jadedparty.bukkit.utils.player.PlayerMap;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import net.jadedmc.nanoid.NanoID;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures finding parties and players in the local collections, with a given number of players online.
+ * Every lookup is for a different player, spread across all parties.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PartyLookupBenchmark {
+    private static final int PARTY_SIZE = 4;
+
+    @Param({"100", "1000", "5000"})
+    private int players;
+
+    private final PartySet parties = new PartySet();
+    private final PlayerMap<PartyPlayer> playerMap = new PlayerMap<>();
+    private UUID[] uuids;
+    private String[] usernames;
+    private NanoID[] nanoIDs;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final JadedPartyBukkit plugin = BenchmarkEnvironment.getPlugin();
+        final int partyCount = players / PARTY_SIZE;
+
+        this.uuids = new UUID[partyCount * PARTY_SIZE];
+        this.usernames = new String[partyCount * PARTY_SIZE];
+        this.nanoIDs = new NanoID[partyCount];
+
+        for(int i = 0; i < partyCount; i++) {
+            final PartySnapshot snapshot = BenchmarkEnvironment.createParty("party" + i, PARTY_SIZE, i * PARTY_SIZE);
+            final Party party = new Party(plugin, snapshot);
+            parties.add(party);
+            nanoIDs[i] = party.getNanoID();
+
+            int index = i * PARTY_SIZE;
+            for(final PartyPlayerSnapshot player : snapshot.players()) {
+                playerMap.put(player.uniqueId(), new PartyPlayer(plugin, player));
+                uuids[index] = player.uniqueId();
+
+                // Look players up in upper case, since names typed in commands rarely match exactly.
+                usernames[index] = player.username().toUpperCase();
+                index++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Party partySetGetFromPlayer() {
+        return parties.getFromPlayer(uuids[nextIndex(uuids.length)]);
+    }
+
+    @Benchmark
+    public Party partySetGetFromNanoID() {
+        return parties.getFromNanoID(nanoIDs[nextIndex(nanoIDs.length)]);
+    }
+
+    @Benchmark
+    public PartyPlayer playerMapGetByUsername() {
+        return playerMap.get(usernames[nextIndex(usernames.length)]);
+    }
+
+    @Benchmark
+    public PartyPlayer playerMapGetByUUID() {
+        return playerMap.get(uuids[nextIndex(uuids.length)]);
+    }
+
+    /**
+     * Cycles through the looked up values.
+     * @param length Number of values.
+     * @return Index of the next value.
+     */
+    private int nextIndex(final int length) {
+        final int index = next++;
+
+        if(next >= length) {
+            next = 0;
+        }
+
+        return index % length;
+    }
+}
@@ -26,8 +26,8 @@ package net.jadedmc.jadedparty.bukkit;
 
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartySet;
+import net.jadedmc.jadedparty.bukkit.utils.metrics.LatencyHistogram;
 import net.jadedmc.nanoid.NanoID;
-import org.bson.Document;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -52,13 +52,15 @@ public class JadedPartyAPI {
         return plugin.getPartyManager().getLocalPartyFromNanoID(nanoID);
     }
 
-    public static PartySet getRemoteParties() {
-        final PartySet partySet = new PartySet();
-
-        for(final Document document : plugin.getConfigManager().getCache().getAllPartyDocuments()) {
-
-        }
+    /**
+     * Get the histogram of how long it takes to load a player's party data when they join.
+     * @return Join latency histogram.
+     */
+    public static LatencyHistogram getJoinLatency() {
+        return plugin.getJoinLatency();
+    }
 
-        return partySet;
+    public static PartySet getRemoteParties() {
+        return plugin.getPartyManager().getRemoteParties();
     }
 }
@@ -24,24 +24,38 @@
  */
 package net.jadedmc.jadedparty.bukkit;
 
+import net.jadedmc.jadedparty.bukkit.commands.jadedparty.JadedPartyCMD;
 import net.jadedmc.jadedparty.bukkit.commands.party.PartyCMD;
 import net.jadedmc.jadedparty.bukkit.databases.Redis;
+import net.jadedmc.jadedparty.bukkit.listeners.AsyncPlayerPreLoginListener;
 import net.jadedmc.jadedparty.bukkit.listeners.PlayerJoinListener;
 import net.jadedmc.jadedparty.bukkit.listeners.PlayerQuitListener;
 import net.jadedmc.jadedparty.bukkit.party.PartyManager;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigManager;
 import net.jadedmc.jadedparty.bukkit.settings.HookManager;
 import net.jadedmc.jadedparty.bukkit.utils.JadedUtils;
+import net.jadedmc.jadedparty.bukkit.utils.logging.PartyLogger;
+import net.jadedmc.jadedparty.bukkit.utils.metrics.LatencyHistogram;
+import net.jadedmc.jadedparty.bukkit.utils.player.PlayerPresence;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitWorker;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
 public class JadedPartyBukkit extends JavaPlugin {
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT = 5000;
     private ConfigManager configManager;
     private HookManager hookManager;
+    private final LatencyHistogram joinLatency = new LatencyHistogram("join");
+    private PartyLogger partyLogger;
     private PartyManager partyManager;
     private Redis redis;
 
     @Override
     public void onEnable() {
+        this.partyLogger = new PartyLogger(this);
         new JadedUtils(this);
         JadedPartyAPI.initialize(this);
 
@@ -50,19 +64,121 @@ public class JadedPartyBukkit extends JavaPlugin {
         this.hookManager = new HookManager(this);
         this.partyManager = new PartyManager(this);
 
+        // Track players who are already online, in case the plugin was loaded late.
+        getServer().getOnlinePlayers().forEach(PlayerPresence::add);
+
         this.getServer().getMessenger().registerOutgoingPluginChannel(this, "BungeeCord");
 
         // Register commands.
+        getCommand("jadedparty").setExecutor(new JadedPartyCMD(this));
         getCommand("party").setExecutor(new PartyCMD(this));
 
         // Register Listeners
+        getServer().getPluginManager().registerEvents(new AsyncPlayerPreLoginListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
     }
 
     @Override
     public void onDisable() {
-        this.getServer().getMessenger().unregisterOutgoingPluginChannel(this);
+        // If the logger is missing, onEnable failed before anything else was created.
+        if(this.partyLogger == null) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(getShutdownTimeout());
+
+        // Each step is isolated, so one failing can't stop the later ones from saving data or releasing resources.
+        // Steps use lambdas instead of method references, so a manager missing after a failed onEnable fails inside its step.
+        // Process players who left during the last tick, and stop repeating tasks.
+        runShutdownStep("process pending quits", () -> this.partyManager.shutdown());
+
+        // Give cache writes that are already running a chance to finish.
+        final int unfinishedTasks = countShutdownStep("wait for async tasks", () -> awaitAsyncTasks(deadline));
+        runShutdownStep("shut down the cache", () -> this.configManager.getCache().shutdown(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+
+        // Queued writes that never started will not run anymore, so write them now in one batch.
+        final int flushed = countShutdownStep("flush pending updates", () -> this.partyManager.flushDirty());
+
+        runShutdownStep("unregister plugin channels", () -> this.getServer().getMessenger().unregisterOutgoingPluginChannel(this));
+        runShutdownStep("close Redis", () -> this.redis.close(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        runShutdownStep("clear online players", PlayerPresence::clear);
+
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.partyLogger.info("Shut down in " + elapsed + "ms. Flushed " + flushed + " pending updates, " + unfinishedTasks + " async tasks did not finish in time.");
+        this.partyLogger.shutdown();
+    }
+
+    /**
+     * Gets how long shutting down may wait for pending cache writes.
+     * Falls back to the default if onEnable failed before the config was loaded.
+     * @return Shutdown timeout, in milliseconds.
+     */
+    private long getShutdownTimeout() {
+        if(this.configManager == null || this.configManager.getSnapshot() == null) {
+            return DEFAULT_SHUTDOWN_TIMEOUT;
+        }
+
+        return this.configManager.getSnapshot().shutdownTimeout();
+    }
+
+    /**
+     * Runs one step of shutting down, logging it if it fails instead of letting it stop the remaining steps.
+     * @param step Description of the step, used in the log message.
+     * @param action Step to run.
+     */
+    private void runShutdownStep(@NotNull final String step, @NotNull final Runnable action) {
+        try {
+            action.run();
+        }
+        catch (Exception exception) {
+            this.partyLogger.warning("Could not " + step + " while shutting down.", exception);
+        }
+    }
+
+    /**
+     * Runs one step of shutting down that counts something, logging it if it fails instead of letting it stop the remaining steps.
+     * @param step Description of the step, used in the log message.
+     * @param action Step to run.
+     * @return Result of the step, or 0 if it failed.
+     */
+    private int countShutdownStep(@NotNull final String step, @NotNull final IntSupplier action) {
+        try {
+            return action.getAsInt();
+        }
+        catch (Exception exception) {
+            this.partyLogger.warning("Could not " + step + " while shutting down.", exception);
+            return 0;
+        }
+    }
+
+    /**
+     * Waits for the plugin's running async tasks to finish.
+     * @param deadline Value of System.nanoTime() to stop waiting at.
+     * @return Number of tasks still running when the wait ended.
+     */
+    private int awaitAsyncTasks(final long deadline) {
+        while(true) {
+            int running = 0;
+            for(final BukkitWorker worker : getServer().getScheduler().getActiveWorkers()) {
+                if(worker.getOwner() == this) {
+                    running++;
+                }
+            }
+
+            if(running == 0 || System.nanoTime() >= deadline) {
+                return running;
+            }
+
+            try {
+                Thread.sleep(10);
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return running;
+            }
+        }
     }
 
     public ConfigManager getConfigManager() {
@@ -77,6 +193,22 @@ public class JadedPartyBukkit extends JavaPlugin {
         return hookManager;
     }
 
+    /**
+     * Get the histogram of how long it takes to load a player's party data when they join.
+     * @return Join latency histogram.
+     */
+    public LatencyHistogram getJoinLatency() {
+        return joinLatency;
+    }
+
+    /**
+     * Get the plugin's logger, which writes messages from a background thread.
+     * @return PartyLogger.
+     */
+    public PartyLogger getPartyLogger() {
+        return partyLogger;
+    }
+
     public PartyManager getPartyManager() {
         return partyManager;
     }
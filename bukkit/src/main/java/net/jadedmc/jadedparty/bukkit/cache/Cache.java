@@ -24,14 +24,24 @@
  */
 package net.jadedmc.jadedparty.bukkit.cache;
 
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
 import org.bson.Document;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Represents a method of storing Party-related JSON documents.
+ * Every method blocks until the cache responds. The async variants run the same methods on the cache's executor, and
+ * return a future instead.
  */
 public interface Cache {
 
@@ -47,6 +57,15 @@ public interface Cache {
      */
     void deletePlayerDocument(@NotNull final String uuid);
 
+    /**
+     * Deletes multiple player documents from the cache.
+     * Caches that can delete several keys in one request should override this.
+     * @param uuids UUIDs of the documents.
+     */
+    default void deletePlayerDocuments(@NotNull final Collection<String> uuids) {
+        uuids.forEach(this::deletePlayerDocument);
+    }
+
     /**
      * Get all party documents in the cache.
      * @return All party documents in the cache.
@@ -71,6 +90,118 @@ public interface Cache {
      */
     Document getPlayerDocument(@NotNull final String uuid);
 
+    /**
+     * Gets a party from the cache based on a given NanoID.
+     * Caches that store documents convert them, so override this if the party can be returned directly.
+     * @param nanoID NanoID of the party.
+     * @return Snapshot of the party, or null if it is not cached.
+     */
+    @Nullable
+    default PartySnapshot getParty(@NotNull final String nanoID) {
+        final Document document = getPartyDocument(nanoID);
+        return document == null ? null : PartySnapshot.fromDocument(document);
+    }
+
+    /**
+     * Gets a party player from the cache based on a given uuid.
+     * Caches that store documents convert them, so override this if the player can be returned directly.
+     * @param uuid UUID of the player.
+     * @return Snapshot of the player, or null if they are not cached.
+     */
+    @Nullable
+    default PartyPlayerSnapshot getPartyPlayer(@NotNull final String uuid) {
+        final Document document = getPlayerDocument(uuid);
+        return document == null ? null : PartyPlayerSnapshot.fromDocument(document);
+    }
+
+    /**
+     * Gets a party player and the party they are in, in as few cache reads as possible.
+     * @param uuid UUID of the player.
+     * @return Tuple of the player and their party. Either side is null if it is not cached.
+     */
+    @NotNull
+    default Tuple<PartyPlayerSnapshot, PartySnapshot> getPlayerWithParty(@NotNull final String uuid) {
+        final PartyPlayerSnapshot player = getPartyPlayer(uuid);
+
+        if(player == null || player.party() == null) {
+            return new Tuple<>(player, null);
+        }
+
+        return new Tuple<>(player, getParty(player.party()));
+    }
+
+    /**
+     * Get the NanoIDs of every party in the cache.
+     * @return NanoIDs of all parties.
+     */
+    @NotNull
+    default Collection<String> getPartyIDs() {
+        final Collection<PartySnapshot> parties = getAllParties();
+        final List<String> nanoIDs = new ArrayList<>(parties.size());
+        parties.forEach(party -> nanoIDs.add(party.nanoID()));
+
+        return nanoIDs;
+    }
+
+    /**
+     * Gets multiple parties from the cache.
+     * Caches that can read several keys in one request should override this.
+     * @param nanoIDs NanoIDs of the parties.
+     * @return Snapshots of the parties that exist. Missing parties are skipped.
+     */
+    @NotNull
+    default List<PartySnapshot> getParties(@NotNull final Collection<String> nanoIDs) {
+        final List<PartySnapshot> parties = new ArrayList<>(nanoIDs.size());
+        for(final String nanoID : nanoIDs) {
+            final PartySnapshot party = getParty(nanoID);
+
+            if(party != null) {
+                parties.add(party);
+            }
+        }
+
+        return parties;
+    }
+
+    /**
+     * Get all parties in the cache.
+     * @return All parties in the cache.
+     */
+    @NotNull
+    default Collection<PartySnapshot> getAllParties() {
+        final Collection<Document> documents = getAllPartyDocuments();
+        final List<PartySnapshot> parties = new ArrayList<>(documents.size());
+        for(final Document document : documents) {
+            parties.add(PartySnapshot.fromDocument(document));
+        }
+
+        return parties;
+    }
+
+    /**
+     * Get all party players in the cache.
+     * @return All party players in the cache.
+     */
+    @NotNull
+    default Collection<PartyPlayerSnapshot> getAllPartyPlayers() {
+        final Collection<Document> documents = getAllPlayerDocuments();
+        final List<PartyPlayerSnapshot> players = new ArrayList<>(documents.size());
+        for(final Document document : documents) {
+            players.add(PartyPlayerSnapshot.fromDocument(document));
+        }
+
+        return players;
+    }
+
+    /**
+     * Get the executor async cache requests run on.
+     * Caches that block on I/O should use a bounded number of threads, while caches that don't can run requests on
+     * the calling thread.
+     * @return Cache executor.
+     */
+    @NotNull
+    Executor getExecutor();
+
     /**
      * Get the Cache's message processor.
      * Used for processing pub/sub messages.
@@ -86,6 +217,31 @@ public interface Cache {
      */
     boolean hasPlayer(@NotNull final Player player);
 
+    /**
+     * Check if a proxy running JadedParty is delivering messages and moving players between servers.
+     * Caches that aren't shared with a proxy never have one. Does not perform a database operation.
+     * @return true if the proxy handles messages and server switches, false if this server should.
+     */
+    default boolean isProxyOnline() {
+        return false;
+    }
+
+    /**
+     * Records a proxy announcing that it started or stopped delivering messages and moving players between servers.
+     * Caches that aren't shared with a proxy ignore it.
+     * @param online Whether the proxy is delivering them now.
+     */
+    default void setProxyOnline(final boolean online) {}
+
+    /**
+     * Reserves a party id, so no other party can be created with it.
+     * The reservation is released when the party document is deleted, and may also expire once the party is saved.
+     * <b>Warning: May perform a database operation. Do not call from the main thread.</b>
+     * @param nanoID NanoID to reserve.
+     * @return true if the id was free and is now reserved, false if it is already in use.
+     */
+    boolean reservePartyID(@NotNull final String nanoID);
+
     /**
      * Adds a party document to the cache with a given NanoID.
      * @param nanoID NanoID of the document being added.
@@ -100,6 +256,33 @@ public interface Cache {
      */
     void setPlayerDocument(@NotNull final String uuid, @NotNull final Document document);
 
+    /**
+     * Adds a party to the cache.
+     * @param party Snapshot of the party being added.
+     */
+    default void setParty(@NotNull final PartySnapshot party) {
+        setPartyDocument(party.nanoID(), party.toDocument());
+    }
+
+    /**
+     * Adds a party player to the cache.
+     * @param player Snapshot of the player being added.
+     */
+    default void setPartyPlayer(@NotNull final PartyPlayerSnapshot player) {
+        setPlayerDocument(player.uniqueId().toString(), player.toDocument());
+    }
+
+    /**
+     * Adds multiple parties and party players to the cache.
+     * Caches that can write several keys in one request should override this.
+     * @param parties Snapshots of the parties being added.
+     * @param players Snapshots of the players being added.
+     */
+    default void setAll(@NotNull final Collection<PartySnapshot> parties, @NotNull final Collection<PartyPlayerSnapshot> players) {
+        parties.forEach(this::setParty);
+        players.forEach(this::setPartyPlayer);
+    }
+
     /**
      * Publishes a message to the cache.
      * @param channel Channel the message should be sent to.
@@ -114,4 +297,91 @@ public interface Cache {
      * @param message Message that should be sent.
      */
     void publish(@NotNull final String channel, @NotNull final String subChannel, @NotNull final String message);
-}
\ No newline at end of file
+
+    /**
+     * Stops the cache's executor, giving queued requests a chance to finish.
+     * Caches that don't have threads of their own don't need to override this.
+     * @param timeout Maximum time to wait for queued requests, in milliseconds.
+     */
+    default void shutdown(final long timeout) {}
+
+    /**
+     * Gets a party from the cache without blocking.
+     * @param nanoID NanoID of the party.
+     * @return Future completed with the snapshot of the party, or null if it is not cached.
+     */
+    @NotNull
+    default CompletableFuture<PartySnapshot> getPartyAsync(@NotNull final String nanoID) {
+        return CompletableFuture.supplyAsync(() -> getParty(nanoID), getExecutor());
+    }
+
+    /**
+     * Gets a party player from the cache without blocking.
+     * @param uuid UUID of the player.
+     * @return Future completed with the snapshot of the player, or null if they are not cached.
+     */
+    @NotNull
+    default CompletableFuture<PartyPlayerSnapshot> getPartyPlayerAsync(@NotNull final String uuid) {
+        return CompletableFuture.supplyAsync(() -> getPartyPlayer(uuid), getExecutor());
+    }
+
+    /**
+     * Gets a party player and the party they are in without blocking.
+     * @param uuid UUID of the player.
+     * @return Future completed with a tuple of the player and their party. Either side is null if it is not cached.
+     */
+    @NotNull
+    default CompletableFuture<Tuple<PartyPlayerSnapshot, PartySnapshot>> getPlayerWithPartyAsync(@NotNull final String uuid) {
+        return CompletableFuture.supplyAsync(() -> getPlayerWithParty(uuid), getExecutor());
+    }
+
+    /**
+     * Gets all parties in the cache without blocking.
+     * @return Future completed with all parties in the cache.
+     */
+    @NotNull
+    default CompletableFuture<Collection<PartySnapshot>> getAllPartiesAsync() {
+        return CompletableFuture.supplyAsync(this::getAllParties, getExecutor());
+    }
+
+    /**
+     * Gets all party players in the cache without blocking.
+     * @return Future completed with all party players in the cache.
+     */
+    @NotNull
+    default CompletableFuture<Collection<PartyPlayerSnapshot>> getAllPartyPlayersAsync() {
+        return CompletableFuture.supplyAsync(this::getAllPartyPlayers, getExecutor());
+    }
+
+    /**
+     * Adds a party to the cache without blocking.
+     * @param party Snapshot of the party being added.
+     * @return Future completed once the party is written.
+     */
+    @NotNull
+    default CompletableFuture<Void> setPartyAsync(@NotNull final PartySnapshot party) {
+        return CompletableFuture.runAsync(() -> setParty(party), getExecutor());
+    }
+
+    /**
+     * Adds a party player to the cache without blocking.
+     * @param player Snapshot of the player being added.
+     * @return Future completed once the player is written.
+     */
+    @NotNull
+    default CompletableFuture<Void> setPartyPlayerAsync(@NotNull final PartyPlayerSnapshot player) {
+        return CompletableFuture.runAsync(() -> setPartyPlayer(player), getExecutor());
+    }
+
+    /**
+     * Publishes a message to the cache without blocking.
+     * @param channel Channel the message should be sent to.
+     * @param subChannel Sub channel the message should be sent to.
+     * @param message Message that should be sent.
+     * @return Future completed once the message is published.
+     */
+    @NotNull
+    default CompletableFuture<Void> publishAsync(@NotNull final String channel, @NotNull final String subChannel, @NotNull final String message) {
+        return CompletableFuture.runAsync(() -> publish(channel, subChannel, message), getExecutor());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed number of threads that run cache requests.
+ * Keeps the number of threads blocked on the cache bounded, no matter how many commands are running at once.
+ * Requests past the number of threads wait in a queue.
+ */
+public class CacheExecutor implements Executor {
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates the executor.
+     * @param threads Number of threads to use.
+     */
+    public CacheExecutor(final int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "JadedParty Cache Thread #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a task to run on one of the cache threads.
+     * @param task Task to run.
+     */
+    @Override
+    public void execute(@NotNull final Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Stops accepting new tasks, and waits for the queued ones to finish.
+     * @param timeout Maximum time to wait, in milliseconds.
+     * @return Number of queued tasks that were dropped because they did not start in time.
+     */
+    public int shutdown(final long timeout) {
+        executor.shutdown();
+
+        try {
+            if(executor.awaitTermination(Math.max(0, timeout), TimeUnit.MILLISECONDS)) {
+                return 0;
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        return executor.shutdownNow().size();
+    }
+}
@@ -30,7 +30,7 @@ package net.jadedmc.jadedparty.bukkit.cache;
  */
 public enum CacheType {
     /**
-     * Documents are stored in the server's RAM, using a HashMap.
+     * Documents are stored in the server's RAM, using a ConcurrentHashMap.
      * This is only designed for standalone mode. Cross-Server support should use {@link #REDIS}.
      * @See {@link net.jadedmc.jadedparty.bukkit.cache.types.MemoryCache}
      */
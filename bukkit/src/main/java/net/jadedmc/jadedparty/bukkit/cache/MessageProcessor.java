@@ -29,14 +29,21 @@ import com.google.common.io.ByteStreams;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.utils.StringUtils;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.bukkit.utils.player.PlayerPresence;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import net.jadedmc.jadedparty.common.utils.StringUtils;
 import net.jadedmc.nanoid.NanoID;
-import org.bson.Document;
+import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -61,8 +68,8 @@ public class MessageProcessor {
      */
     public void process(@NotNull final String channel, @NotNull final String message) {
         switch (channel) {
-            case "party" -> partyChannel(message);
-            case "jadedparty" -> jadedPartyChannel(message);
+            case CacheKeys.PARTY_CHANNEL -> partyChannel(message);
+            case CacheKeys.PLUGIN_CHANNEL -> jadedPartyChannel(message);
         }
     }
 
@@ -79,6 +86,7 @@ public class MessageProcessor {
                 // Disbands a specified party.
                 case "disband" -> {
                     final NanoID partyNanoID = NanoID.fromString(args[1]);
+                    plugin.getPartyManager().getPrefetchCache().invalidateParty(partyNanoID.toString());
                     final Party party = plugin.getPartyManager().getLocalPartyFromNanoID(partyNanoID);
 
                     // Make sure the party exists before deleting.
@@ -93,28 +101,32 @@ public class MessageProcessor {
                 // Adds a given player to the specified party.
                 case "join" -> {
                     final NanoID partyNanoID = NanoID.fromString(args[1]);
+                    plugin.getPartyManager().getPrefetchCache().invalidateParty(partyNanoID.toString());
                     final UUID playerUUID = UUID.fromString(args[2]);
                     final Party party = plugin.getPartyManager().getLocalPartyFromNanoID(partyNanoID);
 
-                    final Player player = plugin.getServer().getPlayer(playerUUID);
-                    if(player == null || !player.isOnline()) {
+                    if(!PlayerPresence.isOnline(playerUUID)) {
                         return;
                     }
 
-                    final Document document = plugin.getConfigManager().getCache().getPartyDocument(partyNanoID.toString());
+                    final PartySnapshot snapshot = plugin.getConfigManager().getCache().getParty(partyNanoID.toString());
+                    if(snapshot == null) {
+                        return;
+                    }
 
                     // Creates a local copy of the party if it exists, otherwise
                     if(party == null) {
-                        plugin.getPartyManager().loadPartyFromDocument(document);
+                        plugin.getPartyManager().cacheParty(plugin.getPartyManager().loadParty(snapshot));
                     }
                     else {
-                        party.update(document);
+                        party.update(snapshot);
                     }
                 }
 
                 // Removes a given player from the specified party.
                 case "leave" -> {
                     final NanoID partyNanoID = NanoID.fromString(args[1]);
+                    plugin.getPartyManager().getPrefetchCache().invalidateParty(partyNanoID.toString());
                     final UUID playerUUID = UUID.fromString(args[2]);
                     final Party party = plugin.getPartyManager().getLocalPartyFromNanoID(partyNanoID);
 
@@ -128,40 +140,51 @@ public class MessageProcessor {
                 // Update's a party by getting an updated version of it's document.
                 case "update" -> {
                     final NanoID partyNanoID = NanoID.fromString(args[1]);
+                    plugin.getPartyManager().getPrefetchCache().invalidateParty(partyNanoID.toString());
                     final Party party = plugin.getPartyManager().getLocalPartyFromNanoID(partyNanoID);
 
                     if(party == null) {
                         return;
                     }
 
-                    final Document document = plugin.getConfigManager().getCache().getPartyDocument(partyNanoID.toString());
-                    party.update(document);
+                    final PartySnapshot snapshot = plugin.getConfigManager().getCache().getParty(partyNanoID.toString());
+                    if(snapshot == null) {
+                        return;
+                    }
+
+                    party.update(snapshot);
                 }
 
                 case "updateplayer" -> {
                     final UUID playerUUID = UUID.fromString(args[1]);
+                    plugin.getPartyManager().getPrefetchCache().invalidate(playerUUID);
                     final PartyPlayer partyPlayer = plugin.getPartyManager().getLocalPartyPlayers().get(playerUUID);
-                    Document document = null;
+                    PartyPlayerSnapshot snapshot = null;
 
                     if(partyPlayer == null) {
-                        System.out.println("[UPDATEPLAYER] partyPlayer is null.");
+                        plugin.getPartyLogger().debug(LogCategory.PUBSUB, () -> "[UPDATEPLAYER] No cached PartyPlayer for " + playerUUID);
                     }
                     else {
-                        document = plugin.getConfigManager().getCache().getPlayerDocument(playerUUID.toString());
-                        partyPlayer.update(document);
+                        snapshot = plugin.getConfigManager().getCache().getPartyPlayer(playerUUID.toString());
+                        if(snapshot != null) {
+                            partyPlayer.update(snapshot);
+                        }
                     }
 
                     final Party party = plugin.getPartyManager().getLocalPartyFromPlayer(playerUUID);
 
                     if(party == null) {
-                        System.out.println("[UPDATEPLAYER] party is null");
+                        plugin.getPartyLogger().debug(LogCategory.PUBSUB, () -> "[UPDATEPLAYER] No cached party for " + playerUUID);
                     }
                     else {
-                        if(document == null) {
-                            document = plugin.getConfigManager().getCache().getPlayerDocument(playerUUID.toString());
+                        if(snapshot == null) {
+                            snapshot = plugin.getConfigManager().getCache().getPartyPlayer(playerUUID.toString());
                         }
 
-                        party.getPlayer(playerUUID).update(document);
+                        final PartyPlayer member = party.getPlayer(playerUUID);
+                        if(snapshot != null && member != null) {
+                            member.update(snapshot);
+                        }
                     }
                 }
             }
@@ -174,33 +197,64 @@ public class MessageProcessor {
      * @param msg Message being processed.
      */
     private void jadedPartyChannel(@NotNull final String msg) {
+        final Cache cache = plugin.getConfigManager().getCache();
+
+        // A proxy starting or stopping is applied right away, so it covers every message received after it.
+        if(msg.startsWith(CacheKeys.PROXY_STATUS + " ")) {
+            cache.setProxyOnline(msg.endsWith(" online"));
+            return;
+        }
+
+        // Decide who delivers when the message is received, not when the task runs, so it matches the proxy's order.
+        final boolean proxyOnline = cache.isProxyOnline();
+
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
             final String[] args = msg.split(" ");
 
             switch(args[0].toLowerCase()) {
                 // Sends a message to a specific player or group of players no matter what server they are on.
                 case "message" -> {
-                    final String[] playerUUIDs = args[1].split(",");
+                    // The proxy delivers the message itself while it is online.
+                    // Until this server has seen it come online or go offline, both may deliver, so party chat is never lost.
+                    if(proxyOnline) {
+                        return;
+                    }
+
                     final String message = StringUtils.join(Arrays.copyOfRange(args, 2, args.length), " ");
 
-                    // Loop through all specified players in the message.
-                    for(final String playerUUID : playerUUIDs) {
-                        System.out.println("[MESSAGE] Sending message to " + playerUUID);
-                        final UUID uuid = UUID.fromString(playerUUID);
+                    // The same player can be listed more than once, but should only get one copy.
+                    final Set<UUID> playerUUIDs = new LinkedHashSet<>();
+                    for(final String playerUUID : args[1].split(",")) {
+                        playerUUIDs.add(UUID.fromString(playerUUID));
+                    }
+
+                    // Parse the message once, no matter how many players receive it.
+                    Component component = null;
+                    for(final UUID playerUUID : playerUUIDs) {
+                        plugin.getPartyLogger().debug(LogCategory.PUBSUB, () -> "[MESSAGE] Sending message to " + playerUUID);
 
                         // Skip the player if they are not online.
-                        if(plugin.getServer().getPlayer(uuid) == null) {
+                        final Player player = PlayerPresence.getPlayer(playerUUID);
+                        if(player == null) {
                             continue;
                         }
 
+                        if(component == null) {
+                            component = ChatUtils.translate(message);
+                        }
+
                         // Sends the player the message.
-                        final Player player = plugin.getServer().getPlayer(uuid);
-                        ChatUtils.chat(player, message);
+                        ChatUtils.chat(player, component);
                     }
                 }
 
                 // Tells a player to connect to a different server.
                 case "connect" -> {
+                    // The proxy moves the players itself while it is online.
+                    if(proxyOnline) {
+                        return;
+                    }
+
                     final String[] playerUUIDs = args[1].split(",");
                     final String serverName = args[2];
 
@@ -209,12 +263,12 @@ public class MessageProcessor {
                         final UUID uuid = UUID.fromString(playerUUID);
 
                         // Skip the player if they are not on this server.
-                        if(plugin.getServer().getPlayer(uuid) == null) {
+                        final Player player = PlayerPresence.getPlayer(uuid);
+                        if(player == null) {
                             continue;
                         }
 
                         // Switch the player's server.
-                        final Player player = plugin.getServer().getPlayer(uuid);
                         ByteArrayDataOutput out = ByteStreams.newDataOutput();
                         out.writeUTF("Connect");
                         out.writeUTF(serverName);
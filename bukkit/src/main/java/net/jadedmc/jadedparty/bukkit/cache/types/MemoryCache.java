@@ -27,22 +27,37 @@ package net.jadedmc.jadedparty.bukkit.cache.types;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.cache.Cache;
 import net.jadedmc.jadedparty.bukkit.cache.MessageProcessor;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
 import org.bson.Document;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Caches all party data in the server's RAM.
  * Only useful for standalone mode. For cross-server communication use {@link net.jadedmc.jadedparty.bukkit.cache.types.RedisCache}
+ * Safe to read and write from multiple threads, since the cache is used from async tasks.
+ * Parties and players are stored as immutable snapshots, so nothing is converted to or from Bson
+ * unless the document methods are used.
  */
 public class MemoryCache implements Cache {
     private final JadedPartyBukkit plugin;
-    private final Map<String, Document> partyDocumentCache = new HashMap<>();
-    private final Map<String, Document> playerDocumentCache = new HashMap<>();
+    private final Map<String, PartySnapshot> partyCache = new ConcurrentHashMap<>();
+    private final Map<String, PartyPlayerSnapshot> playerCache = new ConcurrentHashMap<>();
+    private final Map<String, Long> reservedPartyIDs = new ConcurrentHashMap<>();
+    private volatile long nextReservationPurge = 0;
     private final MessageProcessor messageProcessor;
 
     /**
@@ -60,7 +75,8 @@ public class MemoryCache implements Cache {
      */
     @Override
     public void deletePartyDocument(@NotNull final String nanoID) {
-        this.partyDocumentCache.remove(nanoID);
+        this.partyCache.remove(nanoID);
+        this.reservedPartyIDs.remove(nanoID);
     }
 
     /**
@@ -69,7 +85,7 @@ public class MemoryCache implements Cache {
      */
     @Override
     public void deletePlayerDocument(@NotNull final String uuid) {
-        this.playerDocumentCache.remove(uuid);
+        this.playerCache.remove(uuid);
     }
 
     /**
@@ -78,7 +94,8 @@ public class MemoryCache implements Cache {
      */
     @Override
     public Document getPartyDocument(@NotNull final String nanoID) {
-        return this.partyDocumentCache.get(nanoID);
+        final PartySnapshot party = this.partyCache.get(nanoID);
+        return party == null ? null : party.toDocument();
     }
 
     /**
@@ -87,25 +104,87 @@ public class MemoryCache implements Cache {
      */
     @Override
     public Document getPlayerDocument(@NotNull final String uuid) {
-        return this.playerDocumentCache.get(uuid);
+        final PartyPlayerSnapshot player = this.playerCache.get(uuid);
+        return player == null ? null : player.toDocument();
+    }
+
+    /**
+     * Gets a party from the cache based on a given NanoID.
+     * @param nanoID NanoID of the party.
+     * @return Snapshot of the party, or null if it is not cached.
+     */
+    @Override
+    @Nullable
+    public PartySnapshot getParty(@NotNull final String nanoID) {
+        return this.partyCache.get(nanoID);
+    }
+
+    /**
+     * Gets a party player from the cache based on a given uuid.
+     * @param uuid UUID of the player.
+     * @return Snapshot of the player, or null if they are not cached.
+     */
+    @Override
+    @Nullable
+    public PartyPlayerSnapshot getPartyPlayer(@NotNull final String uuid) {
+        return this.playerCache.get(uuid);
     }
 
     /**
      * Get all party documents in the cache.
+     * Returns a copy, so it is safe to iterate while other threads modify the cache.
      * @return All documents in the cache.
      */
     @Override
     public Collection<Document> getAllPartyDocuments() {
-        return partyDocumentCache.values();
+        final List<Document> documents = new ArrayList<>(partyCache.size());
+        partyCache.values().forEach(party -> documents.add(party.toDocument()));
+        return documents;
     }
 
     /**
      * Get all player documents in the cache.
+     * Returns a copy, so it is safe to iterate while other threads modify the cache.
      * @return All player documents in the cache.
      */
     @Override
     public Collection<Document> getAllPlayerDocuments() {
-        return playerDocumentCache.values();
+        final List<Document> documents = new ArrayList<>(playerCache.size());
+        playerCache.values().forEach(player -> documents.add(player.toDocument()));
+        return documents;
+    }
+
+    /**
+     * Get all parties in the cache.
+     * Returns a copy, so it is safe to iterate while other threads modify the cache.
+     * @return All parties in the cache.
+     */
+    @Override
+    @NotNull
+    public Collection<PartySnapshot> getAllParties() {
+        return List.copyOf(partyCache.values());
+    }
+
+    /**
+     * Get all party players in the cache.
+     * Returns a copy, so it is safe to iterate while other threads modify the cache.
+     * @return All party players in the cache.
+     */
+    @Override
+    @NotNull
+    public Collection<PartyPlayerSnapshot> getAllPartyPlayers() {
+        return List.copyOf(playerCache.values());
+    }
+
+    /**
+     * Get the executor async cache requests run on.
+     * Nothing here blocks, so requests run on the calling thread.
+     * @return Cache executor.
+     */
+    @Override
+    @NotNull
+    public Executor getExecutor() {
+        return Runnable::run;
     }
 
     /**
@@ -126,7 +205,42 @@ public class MemoryCache implements Cache {
      */
     @Override
     public boolean hasPlayer(@NotNull final Player player) {
-        return playerDocumentCache.containsKey("jadedparty:players:" + player.getUniqueId().toString());
+        return playerCache.containsKey(player.getUniqueId().toString());
+    }
+
+    /**
+     * Reserves a party id, so no other party can be created with it.
+     * Like the Redis cache, the reservation expires on its own, so ids of parties that were never saved are not leaked.
+     * Once the party is saved, its snapshot keeps the id taken.
+     * @param nanoID NanoID to reserve.
+     * @return true if the id was free and is now reserved, false if it is already in use.
+     */
+    @Override
+    public boolean reservePartyID(@NotNull final String nanoID) {
+        if(this.partyCache.containsKey(nanoID)) {
+            return false;
+        }
+
+        final long now = System.currentTimeMillis();
+        final long expires = now + TimeUnit.SECONDS.toMillis(CacheKeys.ID_RESERVATION_SECONDS);
+
+        // Regularly forget reservations that expired, since the parties they were for were never saved.
+        if(now >= this.nextReservationPurge) {
+            this.nextReservationPurge = expires;
+            this.reservedPartyIDs.values().removeIf(expiry -> expiry <= now);
+        }
+
+        final AtomicBoolean reserved = new AtomicBoolean(false);
+        this.reservedPartyIDs.compute(nanoID, (id, expiry) -> {
+            if(expiry != null && expiry > now) {
+                return expiry;
+            }
+
+            reserved.set(true);
+            return expires;
+        });
+
+        return reserved.get();
     }
 
     /**
@@ -136,7 +250,8 @@ public class MemoryCache implements Cache {
      */
     @Override
     public void setPartyDocument(@NotNull final String nanoID, @NotNull final Document document) {
-        this.partyDocumentCache.put(nanoID, document);
+        this.partyCache.put(nanoID, PartySnapshot.fromDocument(document));
+        this.reservedPartyIDs.remove(nanoID);
     }
 
     /**
@@ -146,7 +261,28 @@ public class MemoryCache implements Cache {
      */
     @Override
     public void setPlayerDocument(@NotNull final String uuid, @NotNull final Document document) {
-        this.playerDocumentCache.put(uuid, document);
+        this.playerCache.put(uuid, PartyPlayerSnapshot.fromDocument(document));
+    }
+
+    /**
+     * Adds a party to the cache.
+     * @param party Snapshot of the party being added.
+     */
+    @Override
+    public void setParty(@NotNull final PartySnapshot party) {
+        this.partyCache.put(party.nanoID(), party);
+
+        // The snapshot keeps the id taken from now on.
+        this.reservedPartyIDs.remove(party.nanoID());
+    }
+
+    /**
+     * Adds a party player to the cache.
+     * @param player Snapshot of the player being added.
+     */
+    @Override
+    public void setPartyPlayer(@NotNull final PartyPlayerSnapshot player) {
+        this.playerCache.put(player.uniqueId().toString(), player);
     }
 
     /**
@@ -156,12 +292,15 @@ public class MemoryCache implements Cache {
      */
     @Override
     public void publish(@NotNull final String channel, @NotNull final String message) {
+        // Messages are only delivered on this server, and nothing can handle them once the plugin is disabled.
+        if(!plugin.isEnabled()) {
+            return;
+        }
+
         this.messageProcessor.process(channel, message);
 
-        // Log debug message if debug mode is enabled.
-        if(plugin.getConfigManager().isDebugMode()) {
-            plugin.getLogger().info("[MEMORY PUB] " + channel + " " + message);
-        }
+        // Log debug message if pub/sub debugging is enabled.
+        plugin.getPartyLogger().debug(LogCategory.PUBSUB, () -> "[MEMORY PUB] " + channel + " " + message);
     }
 
     /**
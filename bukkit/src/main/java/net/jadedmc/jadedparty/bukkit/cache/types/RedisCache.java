@@ -26,46 +26,105 @@ package net.jadedmc.jadedparty.bukkit.cache.types;
 
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.cache.Cache;
+import net.jadedmc.jadedparty.bukkit.cache.CacheExecutor;
 import net.jadedmc.jadedparty.bukkit.cache.MessageProcessor;
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
 import org.bson.Document;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.resps.ScanResult;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Uses a Redis database to cache party data and send plugin messages between servers.
  * Primarily used for sharing parties across servers.
  */
 public class RedisCache implements Cache {
+    /**
+     * How many times a player and their party are read before giving up on a consistent pair.
+     */
+    private static final int PLAYER_WITH_PARTY_ATTEMPTS = 3;
+
     private final JadedPartyBukkit plugin;
     private final MessageProcessor messageProcessor;
+    private final CacheExecutor executor;
+    private final BukkitTask proxyCheckTask;
+    private volatile boolean proxyOnline = false;
+    private long proxyNotices = 0;
 
     /**
      * Creates the cache.
      * @param plugin Instance of the plugin.
+     * @param threads Number of threads async cache requests run on.
      */
-    public RedisCache(@NotNull final JadedPartyBukkit plugin) {
+    public RedisCache(@NotNull final JadedPartyBukkit plugin, final int threads) {
         this.plugin = plugin;
+        this.executor = new CacheExecutor(threads);
 
         // Attempts to connect to Redis.
         plugin.getServer().getScheduler().scheduleSyncDelayedTask(plugin, () -> {
             plugin.getRedis().connect();
+
+            // Load existing parties for players who are about to rejoin.
+            plugin.getPartyManager().getWarmup().start();
         }, 10);
 
+        // Regularly check if a proxy is delivering messages, so processing a message never has to ask Redis.
+        final long interval = CacheKeys.PROXY_HEARTBEAT_SECONDS * 20L;
+        this.proxyCheckTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::checkProxy, 20, interval);
+
         this.messageProcessor = new MessageProcessor(plugin);
     }
 
+    /**
+     * Checks if a proxy running JadedParty is still refreshing the proxy key.
+     * Keeps the previous answer if Redis can't be reached, or if a proxy announced a change while checking.
+     * <b>Warning: Database operation.</b>
+     */
+    private void checkProxy() {
+        try {
+            final long notices;
+            synchronized(this) {
+                notices = this.proxyNotices;
+            }
+
+            final boolean online = plugin.getRedis().exists(CacheKeys.PROXY);
+
+            synchronized(this) {
+                if(notices == this.proxyNotices) {
+                    this.proxyOnline = online;
+                }
+            }
+        }
+        catch (Exception exception) {
+            plugin.getPartyLogger().warning("Could not check if the proxy is online.", exception);
+        }
+    }
+
     /**
      * Deletes a party document from the cache given key.
      * @param nanoID NanoID for the document.
      */
     @Override
     public void deletePartyDocument(@NotNull final String nanoID) {
-        plugin.getRedis().del("jadedparty:parties:" + nanoID);
+        plugin.getRedis().del(CacheKeys.PARTIES + nanoID, CacheKeys.IDS + nanoID);
     }
 
     /**
@@ -74,7 +133,26 @@ public class RedisCache implements Cache {
      */
     @Override
     public void deletePlayerDocument(@NotNull final String uuid) {
-        plugin.getRedis().del("jadedparty:players:" + uuid);
+        plugin.getRedis().del(CacheKeys.PLAYERS + uuid);
+    }
+
+    /**
+     * Deletes multiple player documents from the cache with a single DEL.
+     * @param uuids UUIDs of the documents.
+     */
+    @Override
+    public void deletePlayerDocuments(@NotNull final Collection<String> uuids) {
+        if(uuids.isEmpty()) {
+            return;
+        }
+
+        final String[] keys = new String[uuids.size()];
+        int index = 0;
+        for(final String uuid : uuids) {
+            keys[index++] = CacheKeys.PLAYERS + uuid;
+        }
+
+        plugin.getRedis().del(keys);
     }
 
     /**
@@ -86,7 +164,7 @@ public class RedisCache implements Cache {
         final Collection<Document> documents = new HashSet<>();
 
         try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
-            final Set<String> keys = jedis.keys("jadedparty:parties:*");
+            final Set<String> keys = jedis.keys(CacheKeys.PARTIES + "*");
 
             for(@NotNull final String key : keys) {
                 final String json = jedis.get(key);
@@ -107,7 +185,7 @@ public class RedisCache implements Cache {
         final Collection<Document> documents = new HashSet<>();
 
         try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
-            final Set<String> keys = jedis.keys("jadedparty:players:*");
+            final Set<String> keys = jedis.keys(CacheKeys.PLAYERS + "*");
 
             for(@NotNull final String key : keys) {
                 final String json = jedis.get(key);
@@ -119,6 +197,65 @@ public class RedisCache implements Cache {
         return documents;
     }
 
+    /**
+     * Get the NanoIDs of every party in the cache.
+     * Uses SCAN instead of KEYS, so Redis is not blocked while the keys are listed.
+     * @return NanoIDs of all parties.
+     */
+    @Override
+    @NotNull
+    public Collection<String> getPartyIDs() {
+        final List<String> nanoIDs = new ArrayList<>();
+        final ScanParams params = new ScanParams().match(CacheKeys.PARTIES + "*").count(1000);
+        final int prefixLength = CacheKeys.PARTIES.length();
+
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
+            String cursor = ScanParams.SCAN_POINTER_START;
+
+            do {
+                final ScanResult<String> result = jedis.scan(cursor, params);
+                result.getResult().forEach(key -> nanoIDs.add(key.substring(prefixLength)));
+                cursor = result.getCursor();
+            }
+            while(!cursor.equals(ScanParams.SCAN_POINTER_START));
+        }
+
+        return nanoIDs;
+    }
+
+    /**
+     * Gets multiple parties from the cache with a single MGET.
+     * @param nanoIDs NanoIDs of the parties.
+     * @return Snapshots of the parties that exist. Missing parties are skipped.
+     */
+    @Override
+    @NotNull
+    public List<PartySnapshot> getParties(@NotNull final Collection<String> nanoIDs) {
+        if(nanoIDs.isEmpty()) {
+            return List.of();
+        }
+
+        final String[] keys = new String[nanoIDs.size()];
+        int index = 0;
+        for(final String nanoID : nanoIDs) {
+            keys[index++] = CacheKeys.PARTIES + nanoID;
+        }
+
+        final List<String> documents;
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
+            documents = jedis.mget(keys);
+        }
+
+        final List<PartySnapshot> parties = new ArrayList<>(documents.size());
+        for(final String json : documents) {
+            if(json != null) {
+                parties.add(PartySnapshot.fromDocument(Document.parse(json)));
+            }
+        }
+
+        return parties;
+    }
+
     /**
      * Gets a party document from the cache based on a given NanoID.
      * @param nanoID NanoID to the document.
@@ -126,7 +263,8 @@ public class RedisCache implements Cache {
     @Override
     public Document getPartyDocument(@NotNull final String nanoID) {
         try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
-            return Document.parse(jedis.get("jadedparty:parties:" + nanoID));
+            final String json = jedis.get(CacheKeys.PARTIES + nanoID);
+            return json == null ? null : Document.parse(json);
         }
     }
 
@@ -137,10 +275,67 @@ public class RedisCache implements Cache {
     @Override
     public Document getPlayerDocument(@NotNull final String uuid) {
         try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
-            return Document.parse(jedis.get("jadedparty:players:" + uuid));
+            final String json = jedis.get(CacheKeys.PLAYERS + uuid);
+            return json == null ? null : Document.parse(json);
         }
     }
 
+    /**
+     * Gets a party player and the party they are in.
+     * The party document is read together with a second read of the player, in one pipelined round trip.
+     * If the player changed in between, for example because they left the party, both are read again.
+     * Only plain GETs on declared keys are used, so this also works on Redis Cluster.
+     * @param uuid UUID of the player.
+     * @return Tuple of the player and their party. Either side is null if it is not cached.
+     */
+    @Override
+    @NotNull
+    public Tuple<PartyPlayerSnapshot, PartySnapshot> getPlayerWithParty(@NotNull final String uuid) {
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
+            String playerJson = jedis.get(CacheKeys.PLAYERS + uuid);
+
+            for(int attempt = 1; ; attempt++) {
+                // The player has no document.
+                if(playerJson == null) {
+                    return new Tuple<>(null, null);
+                }
+
+                final PartyPlayerSnapshot player = PartyPlayerSnapshot.fromDocument(Document.parse(playerJson));
+
+                // The player is not in a party.
+                if(player.party() == null) {
+                    return new Tuple<>(player, null);
+                }
+
+                final Response<String> partyJson;
+                final Response<String> currentPlayerJson;
+                try(Pipeline pipeline = jedis.pipelined()) {
+                    partyJson = pipeline.get(CacheKeys.PARTIES + player.party());
+                    currentPlayerJson = pipeline.get(CacheKeys.PLAYERS + uuid);
+                    pipeline.sync();
+                }
+
+                // Use the pair if the player did not change while the party was read, or if it keeps changing.
+                if(playerJson.equals(currentPlayerJson.get()) || attempt == PLAYER_WITH_PARTY_ATTEMPTS) {
+                    // The party may no longer exist.
+                    return new Tuple<>(player, partyJson.get() == null ? null : PartySnapshot.fromDocument(Document.parse(partyJson.get())));
+                }
+
+                playerJson = currentPlayerJson.get();
+            }
+        }
+    }
+
+    /**
+     * Get the executor async cache requests run on.
+     * @return Cache executor, with a fixed number of threads.
+     */
+    @Override
+    @NotNull
+    public Executor getExecutor() {
+        return this.executor;
+    }
+
     /**
      * Get the Cache's message processor.
      * Used for processing pub/sub messages.
@@ -159,7 +354,48 @@ public class RedisCache implements Cache {
      */
     @Override
     public boolean hasPlayer(@NotNull final Player player) {
-        return plugin.getRedis().exists("jadedparty:players:" + player.getUniqueId().toString());
+        return plugin.getRedis().exists(CacheKeys.PLAYERS + player.getUniqueId().toString());
+    }
+
+    /**
+     * Check if a proxy running JadedParty is delivering messages and moving players between servers.
+     * Uses the last proxy announcement, or the result of the last check, which runs every few seconds.
+     * Until the proxy key has been seen this server keeps delivering, so nothing is lost while a proxy takes over.
+     * @return true if the proxy handles messages and server switches, false if this server should.
+     */
+    @Override
+    public boolean isProxyOnline() {
+        return this.proxyOnline;
+    }
+
+    /**
+     * Records a proxy announcing that it started or stopped delivering messages and moving players between servers.
+     * A check of the proxy key that started before the announcement is discarded, so it can't undo it.
+     * @param online Whether the proxy is delivering them now.
+     */
+    @Override
+    public synchronized void setProxyOnline(final boolean online) {
+        this.proxyNotices++;
+        this.proxyOnline = online;
+    }
+
+    /**
+     * Reserves a party id, so no other party can be created with it.
+     * Uses SET NX, so two servers can never reserve the same id, and checks for a party document in the same round trip.
+     * The reservation expires on its own, so ids of parties that were never saved or never disbanded cleanly are not leaked.
+     * Once the party is saved, its document keeps the id taken.
+     * @param nanoID NanoID to reserve.
+     * @return true if the id was free and is now reserved, false if it is already in use.
+     */
+    @Override
+    public boolean reservePartyID(@NotNull final String nanoID) {
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource(); Pipeline pipeline = jedis.pipelined()) {
+            final Response<String> reserved = pipeline.set(CacheKeys.IDS + nanoID, "", SetParams.setParams().nx().ex(CacheKeys.ID_RESERVATION_SECONDS));
+            final Response<Boolean> partyExists = pipeline.exists(CacheKeys.PARTIES + nanoID);
+            pipeline.sync();
+
+            return reserved.get() != null && !partyExists.get();
+        }
     }
 
     /**
@@ -169,7 +405,7 @@ public class RedisCache implements Cache {
      */
     @Override
     public void setPartyDocument(@NotNull final String nanoID, @NotNull final Document document) {
-        plugin.getRedis().set("jadedparty:parties:" + nanoID, document.toJson());
+        plugin.getRedis().set(CacheKeys.PARTIES + nanoID, document.toJson());
     }
 
     /**
@@ -179,7 +415,32 @@ public class RedisCache implements Cache {
      */
     @Override
     public void setPlayerDocument(@NotNull final String uuid, @NotNull final Document document) {
-        plugin.getRedis().set("jadedparty:players:" + uuid, document.toJson());
+        plugin.getRedis().set(CacheKeys.PLAYERS + uuid, document.toJson());
+    }
+
+    /**
+     * Adds multiple parties and party players to the cache in a single pipeline.
+     * @param parties Snapshots of the parties being added.
+     * @param players Snapshots of the players being added.
+     */
+    @Override
+    public void setAll(@NotNull final Collection<PartySnapshot> parties, @NotNull final Collection<PartyPlayerSnapshot> players) {
+        // Nothing to write, or Redis never finished connecting.
+        if((parties.isEmpty() && players.isEmpty()) || plugin.getRedis().jedisPool() == null) {
+            return;
+        }
+
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource(); Pipeline pipeline = jedis.pipelined()) {
+            for(final PartySnapshot party : parties) {
+                pipeline.set(CacheKeys.PARTIES + party.nanoID(), party.toDocument().toJson());
+            }
+
+            for(final PartyPlayerSnapshot player : players) {
+                pipeline.set(CacheKeys.PLAYERS + player.uniqueId(), player.toDocument().toJson());
+            }
+
+            pipeline.sync();
+        }
     }
 
     /**
@@ -191,10 +452,8 @@ public class RedisCache implements Cache {
     public void publish(@NotNull final String channel, @NotNull final String message) {
         plugin.getRedis().publishAsync(channel, message);
 
-        // Log debug message if debug mode is enabled.
-        if(plugin.getConfigManager().isDebugMode()) {
-            plugin.getLogger().info("[REDIS PUB] " + channel + " " + message);
-        }
+        // Log debug message if pub/sub debugging is enabled.
+        plugin.getPartyLogger().debug(LogCategory.PUBSUB, () -> "[REDIS PUB] " + channel + " " + message);
     }
 
     /**
@@ -207,4 +466,37 @@ public class RedisCache implements Cache {
     public void publish(@NotNull final String channel, @NotNull final String subChannel, @NotNull final String message) {
         this.publish(channel, subChannel + " " + message);
     }
-}
\ No newline at end of file
+
+    /**
+     * Publishes a message to the cache without blocking.
+     * Published straight from the cache executor, so the future completes once Redis has the message.
+     * @param channel Channel the message should be sent to.
+     * @param subChannel Sub channel the message should be sent to.
+     * @param message Message that should be sent.
+     * @return Future completed once the message is published.
+     */
+    @Override
+    @NotNull
+    public CompletableFuture<Void> publishAsync(@NotNull final String channel, @NotNull final String subChannel, @NotNull final String message) {
+        final String fullMessage = subChannel + " " + message;
+
+        return CompletableFuture.runAsync(() -> {
+            plugin.getRedis().publish(channel, fullMessage);
+            plugin.getPartyLogger().debug(LogCategory.PUBSUB, () -> "[REDIS PUB] " + channel + " " + fullMessage);
+        }, executor);
+    }
+
+    /**
+     * Stops the cache executor, giving queued requests a chance to finish.
+     * @param timeout Maximum time to wait for queued requests, in milliseconds.
+     */
+    @Override
+    public void shutdown(final long timeout) {
+        this.proxyCheckTask.cancel();
+        final int dropped = executor.shutdown(timeout);
+
+        if(dropped > 0) {
+            plugin.getPartyLogger().warning(dropped + " queued cache requests did not run before the server shut down.");
+        }
+    }
+}
@@ -24,5 +24,61 @@
  */
 package net.jadedmc.jadedparty.bukkit.commands.jadedparty;
 
-public class JadedPartyCMD {
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Powers the /jadedparty command, which contains admin tools for the plugin.
+ */
+public class JadedPartyCMD implements CommandExecutor {
+    private final JadedPartyBukkit plugin;
+    private final JadedPartyReloadCMD jadedPartyReloadCMD;
+
+    /**
+     * Creates the command.
+     * @param plugin Instance of the plugin.
+     */
+    public JadedPartyCMD(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+
+        // Load the sub commands.
+        this.jadedPartyReloadCMD = new JadedPartyReloadCMD(plugin);
+    }
+
+    /**
+     * Executes the command.
+     * @param sender Sender of the command.
+     * @param command Command being sent.
+     * @param label Actual String being used to start the command.
+     * @param args Command arguments.
+     * @return true.
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Only admins can use the command.
+        if(!sender.hasPermission("jadedparty.admin")) {
+            ChatUtils.chat(sender, plugin.getConfigManager().getMessage(ConfigMessage.ADMIN_ERROR_NO_PERMISSION));
+            return true;
+        }
+
+        // Reload is currently the only sub command.
+        if(args.length == 0) {
+            return false;
+        }
+
+        // Processes the sub command.
+        switch(args[0].toLowerCase()) {
+            case "reload" -> jadedPartyReloadCMD.execute(sender, args);
+            default -> {
+                return false;
+            }
+        }
+
+        return true;
+    }
 }
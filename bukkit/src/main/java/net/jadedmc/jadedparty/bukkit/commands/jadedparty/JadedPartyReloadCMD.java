@@ -24,5 +24,35 @@
  */
 package net.jadedmc.jadedparty.bukkit.commands.jadedparty;
 
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Powers the /jadedparty reload command, which reloads the plugin's configuration files.
+ * <p>
+ * Usage: /jadedparty reload
+ */
 public class JadedPartyReloadCMD {
+    private final JadedPartyBukkit plugin;
+
+    /**
+     * Creates the sub command.
+     * @param plugin Instance of the plugin.
+     */
+    public JadedPartyReloadCMD(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Executes the command.
+     * @param sender Sender running the command.
+     * @param args Command arguments.
+     */
+    public void execute(@NotNull final CommandSender sender, final String[] args) {
+        plugin.getConfigManager().reload();
+        ChatUtils.chat(sender, plugin.getConfigManager().getMessage(ConfigMessage.ADMIN_RELOAD_RELOADED));
+    }
 }
@@ -27,15 +27,19 @@ package net.jadedmc.jadedparty.bukkit.commands.party;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.party.PartyRole;
+import net.jadedmc.jadedparty.bukkit.party.PartySet;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
+import net.jadedmc.jadedparty.bukkit.utils.MainThreadExecutor;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatComponents;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
 import net.jadedmc.jadedparty.bukkit.utils.player.PlayerMap;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Powers the /party accept command, which allows a player to accept a party invite.
@@ -45,6 +49,7 @@ import java.util.UUID;
  */
 public class PartyAcceptCMD {
     private final JadedPartyBukkit plugin;
+    private final MainThreadExecutor mainThread;
 
     /**
      * Creates the sub command.
@@ -52,71 +57,62 @@ public class PartyAcceptCMD {
      */
     public PartyAcceptCMD(@NotNull final JadedPartyBukkit plugin) {
         this.plugin = plugin;
+        this.mainThread = new MainThreadExecutor(plugin);
     }
 
     /**
      * Executes the command.
+     * Remote players and parties are read from the cache at the same time without blocking, and the player joins the
+     * party on the main thread.
      * @param player Player running the command.
      * @param args Command arguments.
+     * @return Future completed once the party is saved, or right away if the invite could not be accepted.
      */
-    public void execute(@NotNull final Player player, final String[] args) {
+    @NotNull
+    public CompletableFuture<Void> execute(@NotNull final Player player, final String[] args) {
 
         // Makes sure the player is using the command correctly.
         if(args.length == 1) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_ACCEPT_USAGE));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            final PlayerMap<PartyPlayer> remotePlayers = plugin.getPartyManager().getRemotePartyPlayers();
-            String username = args[1];
+        final String username = args[1];
+        final CompletableFuture<PlayerMap<PartyPlayer>> remotePlayers = plugin.getPartyManager().getRemotePartyPlayersAsync();
+        final CompletableFuture<PartySet> remoteParties = plugin.getPartyManager().getRemotePartiesAsync();
 
-            if(!remotePlayers.contains(username)) {
+        return remotePlayers.thenCombine(remoteParties, (players, parties) -> {
+            if(!players.contains(username)) {
                 ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>That player is not online");
-                return;
+                return null;
             }
 
-            UUID uuid = remotePlayers.get(username).getUniqueId();
-
-            Collection<Party> remoteParties = plugin.getPartyManager().getRemoteParties();
-            boolean inParty = false;
-            Party party = null;
-
-            for(Party remoteParty : remoteParties) {
-                if(remoteParty.getPlayers().contains(uuid)) {
-                    Party localParty = plugin.getPartyManager().getLocalPartyFromNanoID(remoteParty.getNanoID());
-                    if(localParty != null) {
-                        party = localParty;
-                    }
-                    else {
-                        party = remoteParty;
-                    }
-
-                    inParty = true;
-                    break;
-                }
+            final Party remoteParty = parties.getFromPlayer(players.get(username).getUniqueId());
+            if(remoteParty == null) {
+                ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>That player is not in a party");
             }
 
-            if(!inParty) {
-                ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>That player is not in a party");
-                return;
+            return remoteParty;
+        }).thenComposeAsync(remoteParty -> {
+            if(remoteParty == null) {
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
+            // Use the local copy of the party if there is one.
+            final Party localParty = plugin.getPartyManager().getLocalPartyFromNanoID(remoteParty.getNanoID());
+            final Party party = localParty == null ? remoteParty : localParty;
+
             if(!party.getInvites().contains(player.getUniqueId())) {
                 ChatUtils.chat(player, "<red><bold>Error</bold> <dark_gray>» <red>You do not have an invite to that party.");
-                System.out.println("Invites Found: " + party.getInvites().size());
-
-                for(UUID inviteUUID : party.getInvites()) {
-                    System.out.println(inviteUUID.toString());
-                }
-                return;
+                plugin.getPartyLogger().debug(LogCategory.CACHE, () -> "Invites Found: " + party.getInvites());
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
             // Display the other players in the party.
             {
-                ChatUtils.chat(player, "<green>▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬</green>");
-                ChatUtils.chat(player, ChatUtils.centerText("<green><bold>You are partying with"));
-                ChatUtils.chat(player, "");
+                ChatUtils.chat(player, ChatComponents.get(ChatComponents.DIVIDER));
+                ChatUtils.chat(player, ChatComponents.get(ChatUtils.centerText("<green><bold>You are partying with")));
+                ChatUtils.chat(player, Component.empty());
 
                 final StringBuilder members = new StringBuilder();
                 for(PartyPlayer partyPlayer : party.getPlayers().values()) {
@@ -130,17 +126,22 @@ public class PartyAcceptCMD {
                 }
 
                 ChatUtils.chat(player, members.substring(0, members.length() - 1));
-                ChatUtils.chat(player, "");
-                ChatUtils.chat(player, "<green>▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬</green>");
+                ChatUtils.chat(player, Component.empty());
+                ChatUtils.chat(player, ChatComponents.get(ChatComponents.DIVIDER));
             }
 
             party.addPlayer(player, PartyRole.MEMBER);
-            party.update();
-            party.sendMessage("<green><bold>Party</bold> <dark_gray>» " + "<gray>" + player.getName() + " <green>has joined the party.");
 
-            if(plugin.getPartyManager().getLocalPartyFromNanoID(party.getNanoID()) == null) {
+            if(localParty == null) {
                 plugin.getPartyManager().cacheParty(party);
             }
+
+            return party.updateAsync().thenRun(() -> {
+                party.sendMessage("<green><bold>Party</bold> <dark_gray>» " + "<gray>" + player.getName() + " <green>has joined the party.");
+            });
+        }, mainThread).exceptionally(exception -> {
+            plugin.getPartyLogger().warning("Could not accept " + player.getName() + "'s party invite.", exception);
+            return null;
         });
     }
-}
\ No newline at end of file
+}
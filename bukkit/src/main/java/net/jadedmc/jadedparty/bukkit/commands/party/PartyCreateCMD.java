@@ -27,10 +27,13 @@ package net.jadedmc.jadedparty.bukkit.commands.party;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
+import net.jadedmc.jadedparty.bukkit.utils.MainThreadExecutor;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Powers the /party create command, which lets a player create a new party.
  * <p>
@@ -38,6 +41,7 @@ import org.jetbrains.annotations.NotNull;
  */
 public class PartyCreateCMD {
     private final JadedPartyBukkit plugin;
+    private final MainThreadExecutor mainThread;
 
     /**
      * Creates the sub command.
@@ -45,28 +49,41 @@ public class PartyCreateCMD {
      */
     public PartyCreateCMD(@NotNull final JadedPartyBukkit plugin) {
         this.plugin = plugin;
+        this.mainThread = new MainThreadExecutor(plugin);
     }
 
     /**
      * Executes the command.
+     * The party id is reserved off the main thread, and the party is created on the main thread once it is ready.
      * @param player Player running the command.
      * @param args Command arguments.
+     * @return Future completed once the party is saved, or right away if it could not be created.
      */
-    public void execute(@NotNull final Player player, final String[] args) {
+    @NotNull
+    public CompletableFuture<Void> execute(@NotNull final Player player, final String[] args) {
         // Makes sure the player is not already in a party.
         if(plugin.getPartyManager().getLocalParties().containsPlayer(player)) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_ERROR_ALREADY_IN_PARTY));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        // Creates the party and updates it through the messaging service.
-        final Party party = plugin.getPartyManager().createLocalParty(player);
-        party.update();
+        return plugin.getPartyManager().getPartyIdAllocator().allocateAsync().thenComposeAsync(nanoID -> {
+            // The player may have joined or created a party while the id was being reserved.
+            if(plugin.getPartyManager().getLocalParties().containsPlayer(player)) {
+                ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_ERROR_ALREADY_IN_PARTY));
+                return CompletableFuture.<Void>completedFuture(null);
+            }
 
-        party.getPlayer(player).update();
+            // Creates the party and updates it through the messaging service.
+            final Party party = plugin.getPartyManager().createLocalParty(player, nanoID);
 
-        // Tell the player the party was created.
-        ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_CREATE_PARTY_CREATED));
+            // Tell the player the party was created.
+            return CompletableFuture.allOf(party.updateAsync(), party.getPlayer(player).updateAsync()).thenRun(() -> {
+                ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_CREATE_PARTY_CREATED));
+            });
+        }, mainThread).exceptionally(exception -> {
+            plugin.getPartyLogger().warning("Could not create " + player.getName() + "'s party.", exception);
+            return null;
+        });
     }
-
-}
\ No newline at end of file
+}
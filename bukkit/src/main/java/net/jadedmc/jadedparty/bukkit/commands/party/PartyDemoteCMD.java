@@ -27,14 +27,16 @@ package net.jadedmc.jadedparty.bukkit.commands.party;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.party.PartyRole;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
+import net.jadedmc.jadedparty.bukkit.utils.MainThreadExecutor;
 import net.jadedmc.jadedparty.bukkit.utils.Tuple;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
-import net.jadedmc.jadedparty.bukkit.utils.player.PlayerMap;
+import net.jadedmc.jadedparty.common.party.PartyRole;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Powers the /party demote command, which demotes a player to a lower party role.
  * <p>
@@ -43,6 +45,7 @@ import org.jetbrains.annotations.NotNull;
  */
 public class PartyDemoteCMD {
     private final JadedPartyBukkit plugin;
+    private final MainThreadExecutor mainThread;
 
     /**
      * Creates the sub command.
@@ -50,69 +53,73 @@ public class PartyDemoteCMD {
      */
     public PartyDemoteCMD(@NotNull final JadedPartyBukkit plugin) {
         this.plugin = plugin;
+        this.mainThread = new MainThreadExecutor(plugin);
     }
 
     /**
      * Executes the command.
+     * The target is looked up from the cache without blocking, and demoted on the main thread.
      * @param player Player running the command.
      * @param args Command arguments.
+     * @return Future completed once the party is saved, or right away if no one was demoted.
      */
-    public void execute(@NotNull final Player player, @NotNull final String[] args) {
+    @NotNull
+    public CompletableFuture<Void> execute(@NotNull final Player player, @NotNull final String[] args) {
         final Party party = plugin.getPartyManager().getLocalPartyFromPlayer(player);
 
         // Makes sure the player is in a party.
         if(party == null) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_ERROR_NOT_IN_PARTY));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Makes sure the player is using the command correctly.
         if(args.length == 1) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_USAGE));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Makes sure they have permission.
         if(party.getPlayer(player).getRole() != PartyRole.LEADER) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_NOT_ALLOWED));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         if(args[1].equalsIgnoreCase(player.getName())) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_CANNOT_DEMOTE_SELF));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            final PlayerMap<PartyPlayer> remotePlayers = plugin.getPartyManager().getRemotePartyPlayers();
-            String username = args[1];
-
+        final String username = args[1];
+        return plugin.getPartyManager().getRemotePartyPlayersAsync().thenComposeAsync(remotePlayers -> {
             if(!remotePlayers.contains(username)) {
                 ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_TARGET_NOT_ONLINE));
-                return;
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
             final PartyPlayer remoteTargetPlayer = remotePlayers.get(username);
             if(!party.getPlayers().contains(remoteTargetPlayer)) {
                 ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_TARGET_NOT_IN_PARTY));
-                return;
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
             final PartyPlayer localTargetPlayer = party.getPlayer(remoteTargetPlayer.getUniqueId());
 
             if(localTargetPlayer.getRole() == PartyRole.MEMBER) {
                 ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_CANNOT_DEMOTE_MEMBER));
-                return;
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
             // Demotes the player
-            final PartyPlayer partyTargetPlayer = party.getPlayer(localTargetPlayer.getUniqueId());
-            partyTargetPlayer.setRole(PartyRole.MEMBER);
-            partyTargetPlayer.update();
-            party.update();
+            localTargetPlayer.setRole(PartyRole.MEMBER);
 
-            final Tuple<String, String> placeholder = new Tuple<>("%target_name%", partyTargetPlayer.getName());
-            party.sendMessage(plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_TARGET_DEMOTED_MEMBER, placeholder));
+            final Tuple<String, String> placeholder = new Tuple<>("%target_name%", localTargetPlayer.getName());
+            return CompletableFuture.allOf(localTargetPlayer.updateAsync(), party.updateAsync()).thenRun(() -> {
+                party.sendMessage(plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DEMOTE_TARGET_DEMOTED_MEMBER, placeholder));
+            });
+        }, mainThread).exceptionally(exception -> {
+            plugin.getPartyLogger().warning("Could not run " + player.getName() + "'s party demotion.", exception);
+            return null;
         });
     }
-}
\ No newline at end of file
+}
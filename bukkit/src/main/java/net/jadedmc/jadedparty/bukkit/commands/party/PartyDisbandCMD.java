@@ -27,12 +27,14 @@ package net.jadedmc.jadedparty.bukkit.commands.party;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.party.PartyRole;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.jadedmc.jadedparty.common.party.PartyRole;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Powers the /party disband command, which allows the player to delete their party.
  * <p>
@@ -51,27 +53,33 @@ public class PartyDisbandCMD {
 
     /**
      * Executes the command.
+     * The party is deleted, and its members are written, without blocking the main thread.
      * @param player Player running the command.
      * @param args Command arguments.
+     * @return Future completed once the party is disbanded, or right away if it could not be.
      */
-    public void execute(@NotNull final Player player, final String[] args) {
+    @NotNull
+    public CompletableFuture<Void> execute(@NotNull final Player player, final String[] args) {
         final Party party = plugin.getPartyManager().getLocalPartyFromPlayer(player);
 
         // Makes sure the player is in a party.
         if(party == null) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_ERROR_NOT_IN_PARTY));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Only allow the party leader to disband the party.
         final PartyPlayer partyPlayer = party.getPlayer(player.getUniqueId());
         if(partyPlayer.getRole() != PartyRole.LEADER) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DISBAND_NOT_ALLOWED));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // Disbands the party.
         party.sendMessage(plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DISBAND_PARTY_DISBANDED));
-        party.disband();
+        return party.disbandAsync().exceptionally(exception -> {
+            plugin.getPartyLogger().warning("Could not disband " + player.getName() + "'s party.", exception);
+            return null;
+        });
     }
 }
@@ -25,6 +25,7 @@
 package net.jadedmc.jadedparty.bukkit.commands.party;
 
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatComponents;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -49,16 +50,16 @@ public class PartyHelpCMD {
      * @param args Command arguments.
      */
     public void execute(@NotNull final Player player, final String[] args) {
-        ChatUtils.chat(player, "<green>▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬</green>");
-        ChatUtils.chat(player, ChatUtils.centerText("<green><bold>Party Commands"));
-        ChatUtils.chat(player, "  <green>/party accept <player>");
-        ChatUtils.chat(player, "  <green>/party create");
-        ChatUtils.chat(player, "  <green>/party demote <player>");
-        ChatUtils.chat(player, "  <green>/party disband");
-        ChatUtils.chat(player, "  <green>/party invite <player>");
-        ChatUtils.chat(player, "  <green>/party leave");
-        ChatUtils.chat(player, "  <green>/party list");
-        ChatUtils.chat(player, "  <green>/party promote <player>");
-        ChatUtils.chat(player, "<green>▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬</green>");
+        ChatUtils.chat(player, ChatComponents.get(ChatComponents.DIVIDER));
+        ChatUtils.chat(player, ChatComponents.get(ChatUtils.centerText("<green><bold>Party Commands")));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party accept <player>"));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party create"));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party demote <player>"));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party disband"));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party invite <player>"));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party leave"));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party list"));
+        ChatUtils.chat(player, ChatComponents.get("  <green>/party promote <player>"));
+        ChatUtils.chat(player, ChatComponents.get(ChatComponents.DIVIDER));
     }
 }
\ No newline at end of file
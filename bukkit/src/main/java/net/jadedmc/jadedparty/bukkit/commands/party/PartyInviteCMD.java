@@ -27,15 +27,21 @@ package net.jadedmc.jadedparty.bukkit.commands.party;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.party.PartyRole;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
 import net.jadedmc.jadedparty.bukkit.utils.JadedUtils;
+import net.jadedmc.jadedparty.bukkit.utils.MainThreadExecutor;
 import net.jadedmc.jadedparty.bukkit.utils.Tuple;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
-import net.jadedmc.jadedparty.bukkit.utils.player.PlayerMap;
+import net.jadedmc.jadedparty.bukkit.utils.player.PlayerPresence;
+import net.jadedmc.jadedparty.common.party.PartyRole;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Powers the /party invite command, which invite's a player to the party.
  * <p>
@@ -44,6 +50,7 @@ import org.jetbrains.annotations.NotNull;
  */
 public class PartyInviteCMD {
     private final JadedPartyBukkit plugin;
+    private final MainThreadExecutor mainThread;
 
     /**
      * Creates the sub command.
@@ -51,80 +58,111 @@ public class PartyInviteCMD {
      */
     public PartyInviteCMD(@NotNull final JadedPartyBukkit plugin) {
         this.plugin = plugin;
+        this.mainThread = new MainThreadExecutor(plugin);
     }
 
     /**
      * Executes the command.
+     * If the player has no party, one is created first, with its id reserved off the main thread.
+     * The target is looked up from the cache without blocking, and the invite is added on the main thread.
      * @param player Player running the command.
      * @param args Command arguments.
+     * @return Future completed once the invite is saved, or right away if it could not be sent.
      */
-    public void execute(@NotNull final Player player, @NotNull final String[] args) {
-        final boolean newParty;
-        Party party = plugin.getPartyManager().getLocalPartyFromPlayer(player);
+    @NotNull
+    public CompletableFuture<Void> execute(@NotNull final Player player, @NotNull final String[] args) {
+        final Party party = plugin.getPartyManager().getLocalPartyFromPlayer(player);
+
+        if(party != null) {
+            return invite(player, party, args[1], false);
+        }
 
-        if(party == null) {
-            // Creates the party.
-            party = plugin.getPartyManager().createLocalParty(player);
-            party.silentUpdate();
-            newParty = true;
+        // Creates the party.
+        return plugin.getPartyManager().getPartyIdAllocator().allocateAsync().thenComposeAsync(nanoID -> {
+            // Use the party the player joined or created while the id was being reserved, if there is one.
+            final Party currentParty = plugin.getPartyManager().getLocalPartyFromPlayer(player);
+            if(currentParty != null) {
+                return invite(player, currentParty, args[1], false);
+            }
+
+            final Party createdParty = plugin.getPartyManager().createLocalParty(player, nanoID);
+            createdParty.silentUpdate();
 
-            party.getPlayer(player).update();
+            createdParty.getPlayer(player).update();
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_CREATE_PARTY_CREATED));
-        }
-        else {
-            newParty = false;
-        }
 
-        PartyPlayer partyPlayer = party.getPlayer(player.getUniqueId());
+            return invite(player, createdParty, args[1], true);
+        }, mainThread).exceptionally(exception -> {
+            plugin.getPartyLogger().warning("Could not create " + player.getName() + "'s party.", exception);
+            return null;
+        });
+    }
+
+    /**
+     * Invites a player to a party.
+     * Must be called from the main thread.
+     * @param player Player sending the invite.
+     * @param party Party the player is in.
+     * @param username Name of the player being invited.
+     * @param newParty Whether the party was just created, in which case the invite is delayed until it is saved.
+     * @return Future completed once the invite is saved, or right away if it could not be sent.
+     */
+    @NotNull
+    private CompletableFuture<Void> invite(@NotNull final Player player, @NotNull final Party party, @NotNull final String username, final boolean newParty) {
+        final PartyPlayer partyPlayer = party.getPlayer(player.getUniqueId());
         if(partyPlayer == null || partyPlayer.getRole() == PartyRole.MEMBER) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_NOT_ALLOWED));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        if(args[1].equalsIgnoreCase(player.getName())) {
+        if(username.equalsIgnoreCase(player.getName())) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_CANNOT_INVITE_SELF));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        Party finalParty = party;
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            final PlayerMap<PartyPlayer> remotePlayers = plugin.getPartyManager().getRemotePartyPlayers();
-            String username = args[1];
+        // Finds the player being invited.
+        final CompletableFuture<PartyPlayer> target;
+
+        if(plugin.getConfigManager().isStandalone()) {
+            // In standalone mode everyone is on this server, so presence is enough and the cache is never scanned.
+            final UUID targetUUID = PlayerPresence.getUniqueId(username);
+            target = CompletableFuture.completedFuture(targetUUID == null ? null : plugin.getPartyManager().getLocalPartyPlayers().get(targetUUID));
+        }
+        else {
+            target = plugin.getPartyManager().getRemotePartyPlayersAsync().thenApply(remotePlayers -> remotePlayers.get(username));
+        }
 
-            if(!remotePlayers.contains(username)) {
+        // Delay invite if the party is new, without holding a thread while waiting.
+        final Executor inviteExecutor = newParty ? CompletableFuture.delayedExecutor(500, TimeUnit.MILLISECONDS, mainThread) : mainThread;
+
+        return target.thenComposeAsync(targetPlayer -> {
+            if(targetPlayer == null) {
                 ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_TARGET_NOT_ONLINE));
-                return;
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
-            final PartyPlayer targetPlayer = remotePlayers.get(username);
             if(targetPlayer.getRole() != PartyRole.NONE) {
                 ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_TARGET_IN_PARTY));
-                return;
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
             // Makes sure the player wasn't already invited.
-            if(finalParty.getInvites().contains(targetPlayer.getUniqueId())) {
+            if(party.getInvites().contains(targetPlayer.getUniqueId())) {
                 ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_PENDING_INVITE));
-                return;
-            }
-
-            // Delay invite if the party is new.
-            if(newParty) {
-                try {
-                    Thread.sleep(500);
-                }
-                catch (InterruptedException exception) {
-                    throw new RuntimeException(exception);
-                }
+                return CompletableFuture.<Void>completedFuture(null);
             }
 
             final Tuple<String, String> placeholder = new Tuple<>("%target_name%", targetPlayer.getName());
-
-            finalParty.addInvite(targetPlayer.getUniqueId());
-            finalParty.sendMessage(plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_INVITE_SEND, placeholder));
-            finalParty.update();
-
-            JadedUtils.sendMessage(targetPlayer.getUniqueId(), plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_INVITE_RECEIVED));
+            party.addInvite(targetPlayer.getUniqueId());
+
+            // Announces the invite once it is saved, so it can be accepted right away.
+            return party.updateAsync().thenRun(() -> {
+                party.sendMessage(plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_INVITE_SEND, placeholder));
+                JadedUtils.sendMessage(targetPlayer.getUniqueId(), plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_INVITE_INVITE_RECEIVED));
+            });
+        }, inviteExecutor).exceptionally(exception -> {
+            plugin.getPartyLogger().warning("Could not send " + player.getName() + "'s party invite.", exception);
+            return null;
         });
     }
 }
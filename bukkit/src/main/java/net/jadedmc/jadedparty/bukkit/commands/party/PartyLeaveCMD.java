@@ -27,12 +27,15 @@ package net.jadedmc.jadedparty.bukkit.commands.party;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.party.PartyRole;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyRole;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+
 public class PartyLeaveCMD {
     private final JadedPartyBukkit plugin;
 
@@ -46,32 +49,40 @@ public class PartyLeaveCMD {
 
     /**
      * Executes the command.
+     * The leave is announced and the party is saved without blocking the main thread.
      * @param player Player running the command.
      * @param args Command arguments.
+     * @return Future completed once the party is saved, or right away if the player is not in a party.
      */
-    public void execute(@NotNull final Player player, final String[] args) {
+    @NotNull
+    public CompletableFuture<Void> execute(@NotNull final Player player, final String[] args) {
         // Makes sure the player is in a party.
         final Party party = plugin.getPartyManager().getLocalPartyFromPlayer(player);
         if(party == null) {
             ChatUtils.chat(player, plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_ERROR_NOT_IN_PARTY));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         // If the party leader leaves, disband the party instead.
         final PartyPlayer partyPlayer = party.getPlayer(player);
         if(partyPlayer.getRole() == PartyRole.LEADER) {
             party.sendMessage(plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_DISBAND_PARTY_DISBANDED));
-            party.disband();
-            return;
+
+            return party.disbandAsync().exceptionally(exception -> {
+                plugin.getPartyLogger().warning("Could not disband " + player.getName() + "'s party.", exception);
+                return null;
+            });
         }
 
         // Sends the leave message with placeholders processed.
         party.sendMessage(plugin.getConfigManager().getMessage(player, ConfigMessage.PARTY_LEAVE_PLAYER_LEFT));
 
         // Updates the party through pub/sub.
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().publish("party", "leave", party.getNanoID() + " " + player.getUniqueId());
-            party.silentUpdate();
-        });
+        return plugin.getConfigManager().getCache().publishAsync(CacheKeys.PARTY_CHANNEL, "leave", party.getNanoID() + " " + player.getUniqueId())
+                .thenCompose(ignored -> party.silentUpdateAsync())
+                .exceptionally(exception -> {
+                    plugin.getPartyLogger().warning("Could not remove " + player.getName() + " from their party.", exception);
+                    return null;
+                });
     }
 }
@@ -29,8 +29,10 @@ import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
 import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
-import net.jadedmc.jadedparty.bukkit.utils.StringUtils;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatComponents;
 import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.jadedmc.jadedparty.common.utils.StringUtils;
+import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -77,9 +79,9 @@ public class PartyListCMD {
         }
 
         // Displays the list
-        ChatUtils.chat(player, "<green>▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬</green>");
-        ChatUtils.chat(player, ChatUtils.centerText("&a&lParty Members"));
-        ChatUtils.chat(player, "");
+        ChatUtils.chat(player, ChatComponents.get(ChatComponents.DIVIDER));
+        ChatUtils.chat(player, ChatComponents.get(ChatUtils.centerText("&a&lParty Members")));
+        ChatUtils.chat(player, Component.empty());
         ChatUtils.chat(player, "&aLeader &7» &f" + leader);
 
         // Only show moderators if there are any.
@@ -88,7 +90,7 @@ public class PartyListCMD {
         }
 
         ChatUtils.chat(player, "&aMembers &7[" + members.size() + "] » &f" + StringUtils.join(members, ", "));
-        ChatUtils.chat(player, "");
-        ChatUtils.chat(player, "<green>▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬</green>");
+        ChatUtils.chat(player, Component.empty());
+        ChatUtils.chat(player, ChatComponents.get(ChatComponents.DIVIDER));
     }
 }
@@ -25,6 +25,9 @@
 package net.jadedmc.jadedparty.bukkit.databases;
 
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigSnapshot;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
 import org.jetbrains.annotations.NotNull;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
@@ -39,7 +42,9 @@ import java.util.Set;
 public class Redis {
     private final JadedPartyBukkit plugin;
     private JedisPool jedisPool;
-    private boolean connected = false;
+    private JedisPubSub subscriber;
+    private Thread subscriberThread;
+    private volatile boolean connected = false;
 
     public Redis(@NotNull final JadedPartyBukkit plugin) {
         this.plugin = plugin;
@@ -47,10 +52,11 @@ public class Redis {
 
     public void connect() {
         // Grab Redis connection info.
-        final String host = plugin.getConfigManager().getConfig().getString("Cache.Redis.host");
-        final int port = plugin.getConfigManager().getConfig().getInt("Cache.Redis.port");
-        final String username = plugin.getConfigManager().getConfig().getString("Cache.Redis.username");
-        final String password = plugin.getConfigManager().getConfig().getString("Cache.Redis.password");
+        final ConfigSnapshot config = plugin.getConfigManager().getSnapshot();
+        final String host = config.redisHost();
+        final int port = config.redisPort();
+        final String username = config.redisUsername();
+        final String password = config.redisPassword();
 
         // Announce connection attempt in debug mode.
         if(plugin.getConfigManager().isDebugMode()) {
@@ -83,6 +89,12 @@ public class Redis {
     }
 
     public void publishAsync(@NotNull final String channel, @NotNull final String message) {
+        // Async tasks can't be scheduled while the plugin is being disabled, so publish on the calling thread instead.
+        if(!plugin.isEnabled()) {
+            publish(channel, message);
+            return;
+        }
+
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
             publish(channel, message);
         });
@@ -100,9 +112,21 @@ public class Redis {
         }
     }
 
-    public void del(String key) {
+    public void del(String... keys) {
         try(Jedis jedis = jedisPool.getResource()) {
-            jedis.del(key);
+            jedis.del(keys);
+        }
+    }
+
+    /**
+     * Sets a key only if it does not already exist.
+     * @param key Key to set.
+     * @param value Value to store.
+     * @return true if the key was set, false if it already existed.
+     */
+    public boolean setnx(@NotNull final String key, @NotNull final String value) {
+        try(Jedis jedis = jedisPool.getResource()) {
+            return jedis.setnx(key, value) == 1;
         }
     }
 
@@ -125,27 +149,59 @@ public class Redis {
     }
 
     public void subscribe() {
-        new Thread("Redis Subscriber") {
+        subscriber = new JedisPubSub() {
+            @Override
+            public void onMessage(String channel, String msg) {
+                plugin.getServer().getScheduler().runTask(plugin, () -> {
+                    // TODO: Replace this. plugin.getServer().getPluginManager().callEvent(new RedisMessageEvent(channel, msg));
+                    plugin.getPartyLogger().debug(LogCategory.PUBSUB, () -> "[REDIS SUB] " + channel + " " + msg);
+                    plugin.getConfigManager().getCache().getMessageProcessor().process(channel, msg);
+                });
+
+            }
+        };
+
+        subscriberThread = new Thread("Redis Subscriber") {
             @Override
             public void run() {
 
                 try (Jedis jedis = jedisPool.getResource()) {
-                    jedis.subscribe(new JedisPubSub() {
-                        @Override
-                        public void onMessage(String channel, String msg) {
-                            plugin.getServer().getScheduler().runTask(plugin, () -> {
-                                // TODO: Replace this. plugin.getServer().getPluginManager().callEvent(new RedisMessageEvent(channel, msg));
-                                System.out.println("[REDIS SUB] " + channel + " " + msg);
-                                plugin.getConfigManager().getCache().getMessageProcessor().process(channel, msg);
-                            });
-
-                        }
-                    }, "jadedparty", "party");
+                    jedis.subscribe(subscriber, CacheKeys.PLUGIN_CHANNEL, CacheKeys.PARTY_CHANNEL);
                 }
                 catch (Exception exception) {
-                    exception.printStackTrace();
+                    // Closing the pool during shutdown also ends the subscription, which is expected.
+                    if(connected) {
+                        plugin.getPartyLogger().warning("Redis subscriber stopped unexpectedly.", exception);
+                    }
                 }
             }
-        }.start();
+        };
+        subscriberThread.start();
+    }
+
+    /**
+     * Unsubscribes from all channels and closes the connection pool.
+     * Does nothing if Redis was never connected.
+     * @param timeout How long to wait for the subscriber thread to stop, in milliseconds.
+     */
+    public void close(final long timeout) {
+        connected = false;
+
+        if(subscriber != null && subscriber.isSubscribed()) {
+            subscriber.unsubscribe();
+        }
+
+        if(subscriberThread != null) {
+            try {
+                subscriberThread.join(Math.max(1, timeout));
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if(jedisPool != null) {
+            jedisPool.close();
+        }
     }
 }
\ No newline at end of file
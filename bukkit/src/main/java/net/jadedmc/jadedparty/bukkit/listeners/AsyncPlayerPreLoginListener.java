@@ -0,0 +1,89 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.listeners;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+public class AsyncPlayerPreLoginListener implements Listener {
+    private final JadedPartyBukkit plugin;
+
+    /**
+     * Creates the listener.
+     * @param plugin Instance of the plugin.
+     */
+    public AsyncPlayerPreLoginListener(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Runs when the event is called.
+     * Already off the main thread, so the player's party data is fetched here and handed to the join listener.
+     * @param event AsyncPlayerPreLoginEvent.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(@NotNull final AsyncPlayerPreLoginEvent event) {
+        // Standalone servers only have data for players who are already online.
+        if(plugin.getConfigManager().isStandalone()) {
+            return;
+        }
+
+        // Skip players another plugin is not letting in.
+        if(event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+
+        final UUID uuid = event.getUniqueId();
+
+        // Already loaded by the startup warm-up.
+        if(plugin.getPartyManager().getPrefetchCache().contains(uuid)) {
+            return;
+        }
+
+        try {
+            // Remember when the read started, so the data is dropped if the player or their party changes before it is stored.
+            final long fetchedAt = System.nanoTime();
+            final Tuple<PartyPlayerSnapshot, PartySnapshot> data = plugin.getConfigManager().getCache().getPlayerWithParty(uuid.toString());
+
+            if(plugin.getPartyManager().getPrefetchCache().put(uuid, data, fetchedAt)) {
+                plugin.getPartyLogger().debug(LogCategory.CACHE, () -> "Prefetched party data for " + uuid);
+            }
+        }
+        catch (Exception exception) {
+            // The join listener will load the data itself.
+            plugin.getPartyLogger().warning("Could not prefetch party data for " + uuid, exception);
+        }
+    }
+}
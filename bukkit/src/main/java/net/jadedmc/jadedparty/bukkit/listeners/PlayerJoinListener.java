@@ -24,13 +24,17 @@
  */
 package net.jadedmc.jadedparty.bukkit.listeners;
 
-import net.jadedmc.jadedparty.bukkit.JadedPartyAPI;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.party.Party;
 import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.party.PartySet;
-import org.bson.Document;
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.bukkit.utils.player.PlayerPresence;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import net.jadedmc.nanoid.NanoID;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.jetbrains.annotations.NotNull;
@@ -46,6 +50,15 @@ public class PlayerJoinListener implements Listener {
         this.plugin = plugin;
     }
 
+    /**
+     * Tracks the player as online before any other plugin handles the join.
+     * @param event PlayerJoinEvent.
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoinPresence(final PlayerJoinEvent event) {
+        PlayerPresence.add(event.getPlayer());
+    }
+
     /**
      * Runs when the event is called.
      * @param event PlayerJoinEvent.
@@ -53,28 +66,62 @@ public class PlayerJoinListener implements Listener {
     @EventHandler
     public void onJoin(final PlayerJoinEvent event) {
         final Player player = event.getPlayer();
+        final long start = System.nanoTime();
 
         // Caches the player as a PartyPlayer.
         if(plugin.getConfigManager().isStandalone()) {
             // Creates a PartyPlayer and caches it.
             final PartyPlayer partyPlayer = plugin.getPartyManager().cachePartyPlayer(player);
             plugin.getServer().getScheduler().runTaskAsynchronously(plugin, partyPlayer::silentUpdate);
+            plugin.getJoinLatency().record(System.nanoTime() - start);
         }
         else {
-            // For cross-server mode get their document from the remote cache.
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-                if(plugin.getConfigManager().getCache().hasPlayer(player)) {
-                    final Document document = plugin.getConfigManager().getCache().getPlayerDocument(player.getUniqueId().toString());
-                    plugin.getPartyManager().cachePartyPlayer(document);
-                    plugin.getPartyManager().getLocalPartyPlayers().get(player).update();
+            // Use the data fetched while the player was logging in, if there is any.
+            final Tuple<PartyPlayerSnapshot, PartySnapshot> prefetched = plugin.getPartyManager().getPrefetchCache().consume(player.getUniqueId());
+
+            if(prefetched != null) {
+                load(player, prefetched, false);
+                plugin.getJoinLatency().record(System.nanoTime() - start);
+                return;
+            }
 
-                    final PartySet partySet = JadedPartyAPI.getRemoteParties();
-                }
-                else {
-                    final PartyPlayer partyPlayer = plugin.getPartyManager().cachePartyPlayer(player);
-                    plugin.getServer().getScheduler().runTaskAsynchronously(plugin, partyPlayer::silentUpdate);
-                }
+            // Otherwise get their document, and their party, from the remote cache in one read.
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                load(player, plugin.getConfigManager().getCache().getPlayerWithParty(player.getUniqueId().toString()), true);
+                plugin.getJoinLatency().record(System.nanoTime() - start);
             });
         }
     }
+
+    /**
+     * Caches a joining player, and their party, from data read from the remote cache.
+     * Does not read from the cache itself, so it is safe to call on the main thread.
+     * @param player Player who joined.
+     * @param cached Tuple of the player's snapshot and their party's snapshot.
+     * @param saveCopy Whether to save the player back to the cache. Prefetched copies are never saved, so they can't overwrite newer data.
+     */
+    private void load(@NotNull final Player player, @NotNull final Tuple<PartyPlayerSnapshot, PartySnapshot> cached, final boolean saveCopy) {
+        if(cached.getLeft() == null) {
+            plugin.getPartyManager().cachePartyPlayer(player).silentUpdate();
+        }
+        else {
+            final PartyPlayer partyPlayer = plugin.getPartyManager().cachePartyPlayer(cached.getLeft());
+
+            if(saveCopy) {
+                partyPlayer.update();
+            }
+        }
+
+        // Makes sure the player's party is cached locally before they use it.
+        if(cached.getRight() != null) {
+            final Party party = plugin.getPartyManager().getLocalPartyFromNanoID(NanoID.fromString(cached.getRight().nanoID()));
+
+            if(party == null) {
+                plugin.getPartyManager().cacheParty(plugin.getPartyManager().loadParty(cached.getRight()));
+            }
+            else {
+                party.update(cached.getRight());
+            }
+        }
+    }
 }
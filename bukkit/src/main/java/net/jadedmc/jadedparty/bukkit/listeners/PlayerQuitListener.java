@@ -25,17 +25,14 @@
 package net.jadedmc.jadedparty.bukkit.listeners;
 
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
-import net.jadedmc.jadedparty.bukkit.party.Party;
-import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
-import net.jadedmc.jadedparty.bukkit.party.PartyRole;
+import net.jadedmc.jadedparty.bukkit.utils.player.PlayerPresence;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.UUID;
-
 public class PlayerQuitListener implements Listener {
     private final JadedPartyBukkit plugin;
 
@@ -47,6 +44,15 @@ public class PlayerQuitListener implements Listener {
         this.plugin = plugin;
     }
 
+    /**
+     * Stops tracking the player once every other plugin has handled the quit.
+     * @param event PlayerQuitEvent.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuitPresence(@NotNull final PlayerQuitEvent event) {
+        PlayerPresence.remove(event.getPlayer());
+    }
+
     /**
      * Runs when the event is called.
      * @param event PlayerQuitEvent.
@@ -54,37 +60,11 @@ public class PlayerQuitListener implements Listener {
     @EventHandler
     public void onQuit(@NotNull final PlayerQuitEvent event) {
         final Player player = event.getPlayer();
-        final Party party = plugin.getPartyManager().getLocalParties().getFromPlayer(player);
-        final PartyPlayer partyPlayer = plugin.getPartyManager().getLocalPartyPlayers().get(player);
-
-        // Handle party logic on disconnect.
-        if(party != null) {
-            // Delete the party from local cache if no one else is online.
-            final int onlinePlayers = party.getOnlinePlayers().size();
-
-            if(onlinePlayers == 1 || partyPlayer.getRole() == PartyRole.LEADER) {
-                plugin.getPartyManager().deleteLocalParty(party);
 
-                // If the server is standalone, also disband the party.
-                if(plugin.getConfigManager().isStandalone()) {
-                    party.disband();
-                }
-            }
-        }
+        // Party logic is handled in a batch on the next tick, once the player is no longer online.
+        plugin.getPartyManager().getQuitQueue().add(player.getUniqueId(), plugin.getPartyManager().getLocalPartyPlayers().get(player));
 
         // Remove the PartyPlayer from the local cache.
         plugin.getPartyManager().getLocalPartyPlayers().remove(player);
-
-        // If the server is standalone, also remove them from the remote cache.
-        if(plugin.getConfigManager().isStandalone()) {
-            final UUID uuid = player.getUniqueId();
-            plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, () -> {
-                plugin.getConfigManager().getCache().deletePlayerDocument(uuid.toString());
-
-                if(plugin.getConfigManager().isDebugMode()) {
-                    plugin.getLogger().info("deleted PartyPlayer for " + uuid);
-                }
-            }, 5);
-        }
     }
-}
\ No newline at end of file
+}
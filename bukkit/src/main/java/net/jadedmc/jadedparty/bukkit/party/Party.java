@@ -25,7 +25,14 @@
 package net.jadedmc.jadedparty.bukkit.party;
 
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.cache.Cache;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
 import net.jadedmc.jadedparty.bukkit.utils.player.PlayerMap;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
 import net.jadedmc.nanoid.NanoID;
 import org.bson.Document;
 import org.bukkit.entity.Player;
@@ -33,6 +40,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a group of players playing together.
@@ -42,6 +50,7 @@ public class Party {
     private final NanoID nanoID;
     private final PlayerMap<PartyPlayer> players = new PlayerMap<>();
     private final Collection<UUID> invites = new HashSet<>();
+    private final WriteTracker writes = new WriteTracker();
 
     /**
      * Creates the party using a Bson Document.
@@ -49,37 +58,36 @@ public class Party {
      * @param document Bson document.
      */
     public Party(@NotNull final JadedPartyBukkit plugin, @NotNull final Document document) {
+        this(plugin, PartySnapshot.fromDocument(document));
+    }
+
+    /**
+     * Creates the party using a snapshot of its state.
+     * @param plugin Instance of the plugin.
+     * @param snapshot Snapshot of the party.
+     */
+    public Party(@NotNull final JadedPartyBukkit plugin, @NotNull final PartySnapshot snapshot) {
         this.plugin = plugin;
-        this.nanoID = NanoID.fromString(document.getString("nanoID"));
+        this.nanoID = NanoID.fromString(snapshot.nanoID());
 
-        // Load the players from the document.
-        final Document playersDocument = document.get("players", Document.class);
-        for(final String player : playersDocument.keySet()) {
-            players.add(new PartyPlayer(plugin, playersDocument.get(player, Document.class)));
+        // Load the players from the snapshot.
+        for(final PartyPlayerSnapshot player : snapshot.players()) {
+            players.add(new PartyPlayer(plugin, player));
         }
 
         // Load the pending invites of the party.
-        final List<String> inviteUUIDs = document.getList("invites", String.class);
-        for(final String uuid : inviteUUIDs) {
-            this.invites.add(UUID.fromString(uuid));
-        }
+        this.invites.addAll(snapshot.invites());
     }
 
     /**
      * Creates an empty party with a given leader.
      * @param plugin Instance of the plugin.
      * @param leader Leader of the party.
+     * @param nanoID NanoID of the party, already reserved through the PartyIdAllocator.
      */
-    public Party(@NotNull final JadedPartyBukkit plugin, @NotNull final Player leader) {
+    public Party(@NotNull final JadedPartyBukkit plugin, @NotNull final Player leader, @NotNull final NanoID nanoID) {
         this.plugin = plugin;
-
-        // Generates the party's NanoID with configured settings in config.yml.
-        final NanoID.Settings nanoIDSettings = new NanoID.Settings()
-                .setAlphabet(plugin.getConfigManager().getConfig().getString("Party.ID.alphabet"))
-                .setMinimumSize(plugin.getConfigManager().getConfig().getInt("Party.ID.minLength"))
-                .setMaximumSize(plugin.getConfigManager().getConfig().getInt("Party.ID.maxLength"))
-                .setPrefix(plugin.getConfigManager().getConfig().getString("Party.ID.prefix"));
-        this.nanoID = new NanoID(nanoIDSettings);
+        this.nanoID = nanoID;
 
         // Adds the player to their party as the leader.
         addPlayer(leader, PartyRole.LEADER);
@@ -101,6 +109,7 @@ public class Party {
     public void addPlayer(@NotNull final Player player, final PartyRole role) {
         final PartyPlayer partyPlayer = plugin.getPartyManager().getLocalPartyPlayers().get(player);
         partyPlayer.setRole(role);
+        partyPlayer.setPartyNanoID(this.nanoID.toString());
         partyPlayer.update();
 
         this.players.add(partyPlayer);
@@ -113,16 +122,39 @@ public class Party {
      * Disbands the party.
      */
     public void disband() {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().publish("party", "disband", this.nanoID.toString());
-            plugin.getConfigManager().getCache().deletePartyDocument(this.nanoID.toString());
-            plugin.getPartyManager().deleteLocalParty(plugin.getPartyManager().getLocalPartyFromNanoID(this.nanoID));
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, this::disbandNow);
+    }
 
-            for(final PartyPlayer player : players.values()) {
-                player.setRole(PartyRole.NONE);
-                player.update();
-            }
-        });
+    /**
+     * Disbands the party on the cache's executor.
+     * @return Future completed once the party is deleted and every member is written.
+     */
+    @NotNull
+    public CompletableFuture<Void> disbandAsync() {
+        return CompletableFuture.runAsync(this::disbandNow, plugin.getConfigManager().getCache().getExecutor());
+    }
+
+    /**
+     * Disbands the party on the calling thread, writing every member to the cache before returning.
+     * Used directly when the plugin is disabled, since async tasks can no longer be scheduled then.
+     * <b>Warning: Database operation. Do not call from the main thread while the server is running.</b>
+     */
+    public void disbandNow() {
+        final Cache cache = plugin.getConfigManager().getCache();
+        cache.publish(CacheKeys.PARTY_CHANNEL, "disband", this.nanoID.toString());
+        cache.deletePartyDocument(this.nanoID.toString());
+
+        final Party localParty = plugin.getPartyManager().getLocalPartyFromNanoID(this.nanoID);
+        if(localParty != null) {
+            plugin.getPartyManager().deleteLocalParty(localParty);
+        }
+
+        for(final PartyPlayer player : players.values()) {
+            player.setRole(PartyRole.NONE);
+            player.setPartyNanoID(null);
+            cache.setPartyPlayer(player.toSnapshot());
+            cache.publish(CacheKeys.PARTY_CHANNEL, "updateplayer", player.getUniqueId().toString());
+        }
     }
 
     /**
@@ -164,6 +196,22 @@ public class Party {
         return this.players.asBukkitPlayers();
     }
 
+    /**
+     * Counts the party members who are on the current instance, without creating a new collection.
+     * @return Number of online players.
+     */
+    public int getOnlinePlayerCount() {
+        return this.players.countOnline();
+    }
+
+    /**
+     * Check if the party has changes that were queued but not written to the cache yet.
+     * @return true if a write is still pending, false if not.
+     */
+    public boolean isDirty() {
+        return this.writes.isPending();
+    }
+
     /**
      * Gets all players currently in the party.
      * @return All current players.
@@ -188,6 +236,7 @@ public class Party {
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
             final PartyPlayer partyPlayer = this.players.get(playerUUID);
             partyPlayer.setRole(PartyRole.NONE);
+            partyPlayer.setPartyNanoID(null);
             partyPlayer.update();
 
             players.remove(playerUUID);
@@ -207,7 +256,7 @@ public class Party {
 
         final String targets = builder.substring(0, builder.length() - 1);
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().publish("jadedparty", "message", targets + " " + message);
+            plugin.getConfigManager().getCache().publish(CacheKeys.PLUGIN_CHANNEL, "message", targets + " " + ChatUtils.centerLines(message));
         });
     }
 
@@ -215,67 +264,146 @@ public class Party {
      * Updates the party in Redis without announcing the update.
      */
     public void silentUpdate() {
+        final long generation = this.writes.queue();
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().setPartyDocument(nanoID.toString(), toDocument());
+            plugin.getConfigManager().getCache().setParty(toSnapshot());
+            this.writes.saved(generation);
         });
     }
 
+    /**
+     * Updates the party in Redis without announcing the update, and without blocking.
+     * The party is copied right away, so changes made after calling this are not included.
+     * @return Future completed once the party is written.
+     */
+    @NotNull
+    public CompletableFuture<Void> silentUpdateAsync() {
+        final long generation = this.writes.queue();
+
+        return plugin.getConfigManager().getCache().setPartyAsync(toSnapshot())
+                .thenRun(() -> this.writes.saved(generation));
+    }
+
     /**
      * Converts the cached party into a Bson Document.
      * @return Bson document of the party.
      */
     public Document toDocument() {
-        final Document document = new Document();
-        document.append("nanoID", this.nanoID.toString());
+        return toSnapshot().toDocument();
+    }
 
-        final Document playersDocument = new Document();
-        for(PartyPlayer player : players.values()) {
-            playersDocument.append(player.getUniqueId().toString(), player.toDocument());
+    /**
+     * Creates an immutable snapshot of the party's current state.
+     * @return Snapshot of the party.
+     */
+    @NotNull
+    public PartySnapshot toSnapshot() {
+        final List<PartyPlayerSnapshot> playerSnapshots = new ArrayList<>(players.size());
+        for(final PartyPlayer player : players.values()) {
+            playerSnapshots.add(player.toSnapshot());
         }
-        document.append("players", playersDocument);
-
-        final List<String> invites = new ArrayList<>();
-        this.invites.forEach(invite -> invites.add(invite.toString()));
-        document.append("invites", invites);
 
-        return document;
+        return new PartySnapshot(this.nanoID.toString(), playerSnapshots, new ArrayList<>(this.invites));
     }
 
     /**
      * Updates the party in Redis.
      */
     public void update() {
+        final long generation = this.writes.queue();
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().setPartyDocument(this.nanoID.toString(), toDocument());
-            plugin.getConfigManager().getCache().publish("party", "update", this.nanoID.toString());
+            plugin.getConfigManager().getCache().setParty(toSnapshot());
+            this.writes.saved(generation);
+            plugin.getConfigManager().getCache().publish(CacheKeys.PARTY_CHANNEL, "update", this.nanoID.toString());
         });
     }
 
+    /**
+     * Updates the party in Redis without blocking.
+     * The party is copied right away, so changes made after calling this are not included.
+     * @return Future completed once the party is written and the update is announced.
+     */
+    @NotNull
+    public CompletableFuture<Void> updateAsync() {
+        final Cache cache = plugin.getConfigManager().getCache();
+        final long generation = this.writes.queue();
+
+        return cache.setPartyAsync(toSnapshot())
+                .thenRun(() -> this.writes.saved(generation))
+                .thenCompose(ignored -> cache.publishAsync(CacheKeys.PARTY_CHANNEL, "update", this.nanoID.toString()));
+    }
+
     /**
      * Updates the cached party with a given Bson document.
      * @param document Bson document to use.
+     * @return What changed in the party.
      */
-    public void update(@NotNull final Document document) {
-        System.out.println("Updating Party: " + this.nanoID);
-        // Empty cached players.
-        players.clear();
-
-        // Loads the party players.
-        final Document playersDocument = document.get("players", Document.class);
-        for(@NotNull final String player : playersDocument.keySet()) {
-            players.add(new PartyPlayer(plugin, playersDocument.get(player, Document.class)));
-            System.out.println("Found " + player);
+    @NotNull
+    public PartyChanges update(@NotNull final Document document) {
+        return update(PartySnapshot.fromDocument(document));
+    }
+
+    /**
+     * Updates the cached party with a given snapshot.
+     * Only members that joined, left, or changed are touched, so existing PartyPlayer objects are kept.
+     * @param snapshot Snapshot to use.
+     * @return What changed in the party.
+     */
+    @NotNull
+    public PartyChanges update(@NotNull final PartySnapshot snapshot) {
+        List<UUID> joined = List.of();
+        List<UUID> left = List.of();
+        List<UUID> modified = List.of();
+
+        // Add new members and update the ones whose role or prefix changed.
+        for(@NotNull final PartyPlayerSnapshot playerSnapshot : snapshot.players()) {
+            final PartyPlayer partyPlayer = players.get(playerSnapshot.uniqueId());
+
+            if(partyPlayer == null) {
+                players.add(new PartyPlayer(plugin, playerSnapshot));
+                joined = append(joined, playerSnapshot.uniqueId());
+            }
+            else if(partyPlayer.getRole() != playerSnapshot.role() || !Objects.equals(partyPlayer.getPrefix(), playerSnapshot.prefix()) || !Objects.equals(partyPlayer.getPartyNanoID(), playerSnapshot.party())) {
+                partyPlayer.update(playerSnapshot);
+                modified = append(modified, playerSnapshot.uniqueId());
+            }
         }
 
-        // Empty cached invites.
-        this.invites.clear();
+        // Every snapshot member is now cached, so there are extra members only if someone left.
+        if(players.size() > snapshot.players().size()) {
+            final Set<UUID> members = new HashSet<>();
+            snapshot.players().forEach(playerSnapshot -> members.add(playerSnapshot.uniqueId()));
 
-        // Loads new invites.
-        final List<String> inviteUUIDs = document.getList("invites", String.class);
-        for(@NotNull final String uuid : inviteUUIDs) {
-            this.invites.add(UUID.fromString(uuid));
+            for(final UUID playerUUID : new ArrayList<>(players.keySet())) {
+                if(!members.contains(playerUUID)) {
+                    players.remove(playerUUID);
+                    left = append(left, playerUUID);
+                }
+            }
         }
 
-        System.out.println("Done");
+        // Replace the invites only if they are different.
+        final boolean invitesChanged = this.invites.size() != snapshot.invites().size() || !this.invites.containsAll(snapshot.invites());
+        if(invitesChanged) {
+            this.invites.clear();
+            this.invites.addAll(snapshot.invites());
+        }
+
+        final PartyChanges changes = new PartyChanges(joined, left, modified, invitesChanged);
+        plugin.getPartyLogger().debug(LogCategory.CACHE, () -> "Updated party " + this.nanoID + " with " + players.size() + " players. Joined: " + changes.joined().size() + ", Left: " + changes.left().size() + ", Modified: " + changes.modified().size() + ", Invites changed: " + changes.invitesChanged());
+
+        return changes;
+    }
+
+    /**
+     * Adds a UUID to a list of changes, creating the list the first time something is added.
+     * @param list Current list of changes.
+     * @param playerUUID UUID to add.
+     * @return List containing the UUID.
+     */
+    private static List<UUID> append(@NotNull final List<UUID> list, @NotNull final UUID playerUUID) {
+        final List<UUID> changes = list.isEmpty() ? new ArrayList<>() : list;
+        changes.add(playerUUID);
+        return changes;
     }
 }
\ No newline at end of file
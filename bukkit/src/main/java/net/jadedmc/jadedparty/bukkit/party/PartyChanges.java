@@ -0,0 +1,48 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Describes what changed when a cached party was updated.
+ * @param joined UUIDs of players who were added to the party.
+ * @param left UUIDs of players who were removed from the party.
+ * @param modified UUIDs of players whose role or prefix changed.
+ * @param invitesChanged Whether the pending invites changed.
+ */
+public record PartyChanges(@NotNull List<UUID> joined, @NotNull List<UUID> left, @NotNull List<UUID> modified, boolean invitesChanged) {
+
+    /**
+     * Check if the update changed anything.
+     * @return true if anything changed, false if the party was already up to date.
+     */
+    public boolean hasChanges() {
+        return invitesChanged || !joined.isEmpty() || !left.isEmpty() || !modified.isEmpty();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigSnapshot;
+import net.jadedmc.nanoid.NanoID;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Generates unique party ids.
+ * The NanoID settings are only rebuilt when the configuration changes, and every id is reserved in the cache before it is used.
+ * Safe to use from multiple threads.
+ */
+public class PartyIdAllocator {
+    private static final int MAX_ATTEMPTS = 16;
+    private final JadedPartyBukkit plugin;
+    private volatile Generator generator;
+
+    /**
+     * Creates the allocator.
+     * @param plugin Instance of the plugin.
+     */
+    public PartyIdAllocator(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Generates a new party id and reserves it in the cache, on the cache's executor.
+     * Use this from the main thread, so the reservation never blocks it.
+     * @return Future completed with the reserved NanoID, or exceptionally if no free id could be found.
+     */
+    @NotNull
+    public CompletableFuture<NanoID> allocateAsync() {
+        return CompletableFuture.supplyAsync(this::allocate, plugin.getConfigManager().getCache().getExecutor());
+    }
+
+    /**
+     * Generates a new party id and reserves it in the cache.
+     * <b>Warning: May perform a database operation when using Redis. Do not call from the main thread.</b>
+     * @return Reserved NanoID.
+     * @throws IllegalStateException If no free id could be found. Usually means the configured id length is too short.
+     */
+    @NotNull
+    public NanoID allocate() {
+        final NanoID.Settings settings = getSettings();
+
+        for(int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            final NanoID nanoID = new NanoID(settings);
+
+            // Only use the id if no other party, on any server, has it.
+            if(plugin.getConfigManager().getCache().reservePartyID(nanoID.toString())) {
+                return nanoID;
+            }
+        }
+
+        throw new IllegalStateException("Could not generate a unique party id after " + MAX_ATTEMPTS + " attempts. Try increasing Party.ID.maxLength in config.yml.");
+    }
+
+    /**
+     * Gets the NanoID settings for the current configuration, rebuilding them if the configuration was reloaded.
+     * @return NanoID settings.
+     */
+    @NotNull
+    private NanoID.Settings getSettings() {
+        final ConfigSnapshot config = plugin.getConfigManager().getSnapshot();
+        Generator current = this.generator;
+
+        if(current == null || current.config() != config) {
+            final NanoID.Settings settings = new NanoID.Settings()
+                    .setAlphabet(config.partyIdAlphabet())
+                    .setMinimumSize(config.partyIdMinLength())
+                    .setMaximumSize(config.partyIdMaxLength())
+                    .setPrefix(config.partyIdPrefix());
+
+            current = new Generator(config, settings);
+            this.generator = current;
+        }
+
+        return current.settings();
+    }
+
+    /**
+     * NanoID settings along with the configuration they were created from.
+     * @param config Configuration the settings were created from.
+     * @param settings NanoID settings.
+     */
+    private record Generator(ConfigSnapshot config, NanoID.Settings settings) {}
+}
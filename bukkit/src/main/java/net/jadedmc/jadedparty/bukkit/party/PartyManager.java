@@ -26,20 +26,34 @@ package net.jadedmc.jadedparty.bukkit.party;
 
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
 import net.jadedmc.jadedparty.bukkit.utils.player.PlayerMap;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
 import net.jadedmc.nanoid.NanoID;
 import org.bson.Document;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manages all existing party, both Local (stored in memory) and Remote (stored in Redis).
  */
 public class PartyManager {
     private final JadedPartyBukkit plugin;
+    private final PartyIdAllocator partyIdAllocator;
+    private final PartyPrefetchCache prefetchCache = new PartyPrefetchCache();
+    private final PartyQuitQueue quitQueue;
+    private final PartyWarmup warmup;
+    private final BukkitTask prefetchPurgeTask;
     private final PartySet localParties = new PartySet();
     private final PlayerMap<PartyPlayer> localPartyPlayers = new PlayerMap<>();
 
@@ -49,16 +63,63 @@ public class PartyManager {
      */
     public PartyManager(@NotNull final JadedPartyBukkit plugin) {
         this.plugin = plugin;
+        this.partyIdAllocator = new PartyIdAllocator(plugin);
+        this.quitQueue = new PartyQuitQueue(plugin);
+        this.warmup = new PartyWarmup(plugin);
+
+        // Regularly drop prefetched data for players who never finished joining.
+        this.prefetchPurgeTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, prefetchCache::purgeExpired, 600, 600);
+    }
+
+    /**
+     * Processes pending quits and stops the manager's repeating tasks.
+     * Used when the plugin is disabled.
+     */
+    public void shutdown() {
+        this.prefetchPurgeTask.cancel();
+        this.quitQueue.shutdown();
+    }
+
+    /**
+     * Writes every locally cached party and party player with a pending update to the cache, in one batch.
+     * Used when the plugin is disabled, since queued async updates will never run.
+     * @return Number of parties and players written.
+     */
+    public int flushDirty() {
+        final List<PartySnapshot> parties = new ArrayList<>();
+        final Map<UUID, PartyPlayerSnapshot> players = new HashMap<>();
+
+        for(final Party party : this.localParties) {
+            if(party.isDirty()) {
+                parties.add(party.toSnapshot());
+            }
+
+            for(final PartyPlayer partyPlayer : party.getPlayers().values()) {
+                if(partyPlayer.isDirty()) {
+                    players.put(partyPlayer.getUniqueId(), partyPlayer.toSnapshot());
+                }
+            }
+        }
+
+        for(final PartyPlayer partyPlayer : this.localPartyPlayers.values()) {
+            if(partyPlayer.isDirty()) {
+                players.put(partyPlayer.getUniqueId(), partyPlayer.toSnapshot());
+            }
+        }
+
+        plugin.getConfigManager().getCache().setAll(parties, players.values());
+        return parties.size() + players.size();
     }
 
     /**
      * Creates a Local Party with a given leader.
      * @param leader Leader of the party.
+     * @param nanoID NanoID of the party, reserved with the PartyIdAllocator.
      * @return Created Party.
      */
     @NotNull
-    public Party createLocalParty(@NotNull final Player leader) {
-        final Party party = new Party(plugin, leader);
+    public Party createLocalParty(@NotNull final Player leader, @NotNull final NanoID nanoID) {
+        final Party party = new Party(plugin, leader, nanoID);
         this.localParties.add(party);
         return party;
     }
@@ -90,6 +151,19 @@ public class PartyManager {
         this.localPartyPlayers.add(new PartyPlayer(plugin, document));
     }
 
+    /**
+     * Caches a Player in the local PartyPlayer cache using their snapshot.
+     * @param snapshot Snapshot to be cached.
+     * @return Cached PartyPlayer.
+     */
+    @NotNull
+    public PartyPlayer cachePartyPlayer(@NotNull final PartyPlayerSnapshot snapshot) {
+        final PartyPlayer partyPlayer = new PartyPlayer(plugin, snapshot);
+        this.localPartyPlayers.add(partyPlayer);
+
+        return partyPlayer;
+    }
+
     /**
      * Deletes a Party from the local Party cache.
      * @param party Party to be deleted.
@@ -117,6 +191,53 @@ public class PartyManager {
         return new Party(plugin, document);
     }
 
+    /**
+     * Loads a party object from a snapshot.
+     * Allows for using Party class methods on Remote Parties.
+     * @param snapshot Snapshot to load the party object from.
+     * @return Party object from the snapshot.
+     */
+    @NotNull
+    public Party loadParty(@NotNull final PartySnapshot snapshot) {
+        return new Party(plugin, snapshot);
+    }
+
+    /**
+     * Gets the allocator used to generate unique party ids.
+     * @return Party id allocator.
+     */
+    @NotNull
+    public PartyIdAllocator getPartyIdAllocator() {
+        return this.partyIdAllocator;
+    }
+
+    /**
+     * Gets the cache of party data fetched for players who are still logging in.
+     * @return Party prefetch cache.
+     */
+    @NotNull
+    public PartyPrefetchCache getPrefetchCache() {
+        return this.prefetchCache;
+    }
+
+    /**
+     * Gets the queue of players who left, which is processed once per tick.
+     * @return Party quit queue.
+     */
+    @NotNull
+    public PartyQuitQueue getQuitQueue() {
+        return this.quitQueue;
+    }
+
+    /**
+     * Gets the startup warm-up, which loads existing parties from the cache.
+     * @return Party warm-up.
+     */
+    @NotNull
+    public PartyWarmup getWarmup() {
+        return this.warmup;
+    }
+
     /**
      * Retrieves a Set of all locally cached Parties.
      * @return Set containing parties stored in RAM.
@@ -175,13 +296,16 @@ public class PartyManager {
      */
     @NotNull
     public PartySet getRemoteParties() {
-        final PartySet remoteParties = new PartySet();
-
-        for(@NotNull final Document document : plugin.getConfigManager().getCache().getAllPartyDocuments()) {
-            remoteParties.add(new Party(plugin, document));
-        }
+        return toPartySet(plugin.getConfigManager().getCache().getAllParties());
+    }
 
-        return remoteParties;
+    /**
+     * Retrieves a Set of all parties stored in the remote cache, without blocking.
+     * @return Future completed with a Set containing Parties grabbed from the remote cache.
+     */
+    @NotNull
+    public CompletableFuture<PartySet> getRemotePartiesAsync() {
+        return plugin.getConfigManager().getCache().getAllPartiesAsync().thenApply(this::toPartySet);
     }
 
     /**
@@ -191,12 +315,47 @@ public class PartyManager {
      */
     @NotNull
     public PlayerMap<PartyPlayer> getRemotePartyPlayers() {
-        final PlayerMap<PartyPlayer> remotePartyPlayers = new PlayerMap<>();
+        return toPlayerMap(plugin.getConfigManager().getCache().getAllPartyPlayers());
+    }
+
+    /**
+     * Retrieves a PlayerMap of all party players stored in the remote cache, without blocking.
+     * @return Future completed with a PlayerMap containing all PartyPlayers grabbed from the remote cache.
+     */
+    @NotNull
+    public CompletableFuture<PlayerMap<PartyPlayer>> getRemotePartyPlayersAsync() {
+        return plugin.getConfigManager().getCache().getAllPartyPlayersAsync().thenApply(this::toPlayerMap);
+    }
+
+    /**
+     * Creates parties from snapshots read from the cache.
+     * @param snapshots Snapshots of the parties.
+     * @return Set containing the created Parties.
+     */
+    @NotNull
+    private PartySet toPartySet(@NotNull final Collection<PartySnapshot> snapshots) {
+        final PartySet parties = new PartySet();
+
+        for(@NotNull final PartySnapshot snapshot : snapshots) {
+            parties.add(new Party(plugin, snapshot));
+        }
+
+        return parties;
+    }
+
+    /**
+     * Creates party players from snapshots read from the cache.
+     * @param snapshots Snapshots of the players.
+     * @return PlayerMap containing the created PartyPlayers.
+     */
+    @NotNull
+    private PlayerMap<PartyPlayer> toPlayerMap(@NotNull final Collection<PartyPlayerSnapshot> snapshots) {
+        final PlayerMap<PartyPlayer> players = new PlayerMap<>();
 
-        for(final Document document : plugin.getConfigManager().getCache().getAllPlayerDocuments()) {
-            remotePartyPlayers.add(new PartyPlayer(plugin, document));
+        for(final PartyPlayerSnapshot snapshot : snapshots) {
+            players.add(new PartyPlayer(plugin, snapshot));
         }
 
-        return remotePartyPlayers;
+        return players;
     }
 }
\ No newline at end of file
@@ -26,23 +26,36 @@ package net.jadedmc.jadedparty.bukkit.party;
 
 import me.clip.placeholderapi.PlaceholderAPI;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.cache.Cache;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
 import net.jadedmc.jadedparty.bukkit.utils.player.PluginPlayer;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
 import org.bson.Document;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class PartyPlayer extends PluginPlayer {
     private final JadedPartyBukkit plugin;
     private PartyRole role;
     private String prefix;
+    private String partyNanoID;
+    private final WriteTracker writes = new WriteTracker();
 
     public PartyPlayer(@NotNull final JadedPartyBukkit plugin, @NotNull final Document document) {
-        super(UUID.fromString(document.getString("uuid")), document.getString("username"));
+        this(plugin, PartyPlayerSnapshot.fromDocument(document));
+    }
+
+    public PartyPlayer(@NotNull final JadedPartyBukkit plugin, @NotNull final PartyPlayerSnapshot snapshot) {
+        super(snapshot.uniqueId(), snapshot.username());
         this.plugin = plugin;
-        this.role = PartyRole.valueOf(document.getString("role"));
-        this.prefix = document.getString("prefix");
+        this.role = snapshot.role();
+        this.prefix = snapshot.prefix();
+        this.partyNanoID = snapshot.party();
     }
 
     public PartyPlayer(@NotNull final JadedPartyBukkit plugin, @NotNull final Player player, final PartyRole role) {
@@ -51,14 +64,31 @@ public class PartyPlayer extends PluginPlayer {
         this.role = role;
 
         if(plugin.getHookManager().usePlaceholderAPI()) {
-            this.prefix = PlaceholderAPI.setPlaceholders(player, plugin.getConfigManager().getConfig().getString("Player.prefix"));
+            this.prefix = PlaceholderAPI.setPlaceholders(player, plugin.getConfigManager().getSnapshot().playerPrefix());
         }
         else {
-            this.prefix = plugin.getConfigManager().getConfig().getString("Player.prefix");
-            System.out.println("[PREFIX] No PlaceholderAPI");
+            this.prefix = plugin.getConfigManager().getSnapshot().playerPrefix();
         }
     }
 
+    /**
+     * Gets the NanoID of the party the player is in.
+     * Stored with the player, so their party can be found without scanning every party.
+     * @return NanoID of their party, or null if they are not in one.
+     */
+    @Nullable
+    public String getPartyNanoID() {
+        return partyNanoID;
+    }
+
+    /**
+     * Check if the player has changes that were queued but not written to the cache yet.
+     * @return true if a write is still pending, false if not.
+     */
+    public boolean isDirty() {
+        return writes.isPending();
+    }
+
     public String getPrefix() {
         return prefix;
     }
@@ -72,44 +102,76 @@ public class PartyPlayer extends PluginPlayer {
         return (player != null && player.isOnline());
     }
 
+    /**
+     * Sets the NanoID of the party the player is in.
+     * @param partyNanoID NanoID of their party, or null if they left it.
+     */
+    public void setPartyNanoID(@Nullable final String partyNanoID) {
+        this.partyNanoID = partyNanoID;
+    }
+
     public void setRole(final PartyRole role) {
         this.role = role;
     }
 
     public Document toDocument() {
-        final Document document = new Document()
-                .append("uuid", getUniqueId().toString())
-                .append("username", getName())
-                .append("role", role.toString());
+        return toSnapshot().toDocument();
+    }
 
+    public PartyPlayerSnapshot toSnapshot() {
         final Player player = this.getBukkitPlayer();
+        final String prefix;
 
         if(plugin.getHookManager().usePlaceholderAPI() && player != null) {
-            document.append("prefix", PlaceholderAPI.setPlaceholders(player, plugin.getConfigManager().getConfig().getString("Player.prefix")));
+            prefix = PlaceholderAPI.setPlaceholders(player, plugin.getConfigManager().getSnapshot().playerPrefix());
         }
         else {
-            document.append("prefix", plugin.getConfigManager().getConfig().getString("Player.prefix"));
-            System.out.println("[PREFIX] Player is offline: " + getName());
+            prefix = plugin.getConfigManager().getSnapshot().playerPrefix();
+            plugin.getPartyLogger().debug(LogCategory.CACHE, () -> "[PREFIX] Using the default prefix for " + getName());
         }
 
-        return document;
+        return new PartyPlayerSnapshot(getUniqueId(), getName(), role, prefix, partyNanoID);
     }
 
     public void update(@NotNull final Document document) {
-        this.role = PartyRole.valueOf(document.getString("role"));
-        this.prefix = document.getString("prefix");
+        update(PartyPlayerSnapshot.fromDocument(document));
+    }
+
+    public void update(@NotNull final PartyPlayerSnapshot snapshot) {
+        this.role = snapshot.role();
+        this.prefix = snapshot.prefix();
+        this.partyNanoID = snapshot.party();
     }
 
     public void update() {
+        final long generation = this.writes.queue();
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().setPlayerDocument(getUniqueId().toString(), toDocument());
-            plugin.getConfigManager().getCache().publish("party", "updateplayer", getUniqueId().toString());
+            plugin.getConfigManager().getCache().setPartyPlayer(toSnapshot());
+            this.writes.saved(generation);
+            plugin.getConfigManager().getCache().publish(CacheKeys.PARTY_CHANNEL, "updateplayer", getUniqueId().toString());
         });
     }
 
+    /**
+     * Updates the player in Redis without blocking.
+     * The player is copied right away, so changes made after calling this are not included.
+     * @return Future completed once the player is written and the update is announced.
+     */
+    @NotNull
+    public CompletableFuture<Void> updateAsync() {
+        final Cache cache = plugin.getConfigManager().getCache();
+        final long generation = this.writes.queue();
+
+        return cache.setPartyPlayerAsync(toSnapshot())
+                .thenRun(() -> this.writes.saved(generation))
+                .thenCompose(ignored -> cache.publishAsync(CacheKeys.PARTY_CHANNEL, "updateplayer", getUniqueId().toString()));
+    }
+
     public void silentUpdate() {
+        final long generation = this.writes.queue();
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().setPlayerDocument(getUniqueId().toString(), toDocument());
+            plugin.getConfigManager().getCache().setPartyPlayer(toSnapshot());
+            this.writes.saved(generation);
         });
     }
 }
\ No newline at end of file
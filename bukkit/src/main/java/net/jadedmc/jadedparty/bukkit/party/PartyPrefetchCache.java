@@ -0,0 +1,259 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds party data fetched for players who are about to join, so it is ready before they spawn.
+ * Entries are consumed once and expire after a short time, in case the player never finishes joining.
+ * Entries are also indexed by party, so they can be dropped when that party or player changes.
+ * Invalidations are remembered for as long as an entry can live, so data that was still being read when its
+ * party or player changed is dropped instead of stored.
+ * Safe to use from async tasks.
+ */
+public class PartyPrefetchCache {
+    private static final long DEFAULT_TTL = TimeUnit.SECONDS.toNanos(30);
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> partyMembers = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> playerInvalidations = new ConcurrentHashMap<>();
+    private final Map<String, Long> partyInvalidations = new ConcurrentHashMap<>();
+    private final long ttl;
+
+    /**
+     * Creates the prefetch cache with the default expiration time.
+     */
+    public PartyPrefetchCache() {
+        this(DEFAULT_TTL);
+    }
+
+    /**
+     * Creates the prefetch cache.
+     * @param ttl How long entries are kept, in nanoseconds. Data read longer ago than this is never stored.
+     */
+    public PartyPrefetchCache(final long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Stores prefetched data for a player, replacing anything already stored for them.
+     * Only use this for data that was read right before calling it.
+     * @param playerUUID UUID of the player.
+     * @param data Tuple of the player's snapshot and their party's snapshot.
+     * @return true if the data was stored, false if it was already outdated.
+     */
+    public boolean put(@NotNull final UUID playerUUID, @NotNull final Tuple<PartyPlayerSnapshot, PartySnapshot> data) {
+        return put(playerUUID, data, System.nanoTime());
+    }
+
+    /**
+     * Stores prefetched data for a player, replacing anything already stored for them.
+     * @param playerUUID UUID of the player.
+     * @param data Tuple of the player's snapshot and their party's snapshot.
+     * @param fetchedAt Value of System.nanoTime() from right before the data was read.
+     * @return true if the data was stored, false if it was already outdated.
+     */
+    public boolean put(@NotNull final UUID playerUUID, @NotNull final Tuple<PartyPlayerSnapshot, PartySnapshot> data, final long fetchedAt) {
+        return put(playerUUID, data, fetchedAt, ttl);
+    }
+
+    /**
+     * Stores prefetched data for a player with a given expiration time, replacing anything already stored for them.
+     * The data is not stored if it was read too long ago, or if the player or their party was invalidated since it was read.
+     * @param playerUUID UUID of the player.
+     * @param data Tuple of the player's snapshot and their party's snapshot.
+     * @param fetchedAt Value of System.nanoTime() from right before the data was read.
+     * @param ttl How long the entry is kept after it was read, in nanoseconds.
+     * @return true if the data was stored, false if it was already outdated.
+     */
+    public boolean put(@NotNull final UUID playerUUID, @NotNull final Tuple<PartyPlayerSnapshot, PartySnapshot> data, final long fetchedAt, final long ttl) {
+        if(System.nanoTime() - fetchedAt > this.ttl || isInvalidatedSince(playerUUID, data, fetchedAt)) {
+            return false;
+        }
+
+        final Entry entry = new Entry(data, fetchedAt + ttl);
+        unindex(playerUUID, this.entries.put(playerUUID, entry));
+
+        if(data.getRight() != null) {
+            this.partyMembers.compute(data.getRight().nanoID(), (nanoID, members) -> {
+                final Set<UUID> partyMembers = members == null ? ConcurrentHashMap.newKeySet() : members;
+                partyMembers.add(playerUUID);
+                return partyMembers;
+            });
+        }
+
+        // An invalidation may have run while the entry was being stored, after the first check.
+        if(isInvalidatedSince(playerUUID, data, fetchedAt)) {
+            if(this.entries.remove(playerUUID, entry)) {
+                unindex(playerUUID, entry);
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if fresh prefetched data is stored for a player.
+     * @param playerUUID UUID of the player.
+     * @return true if there is data that has not expired, false if not.
+     */
+    public boolean contains(@NotNull final UUID playerUUID) {
+        final Entry entry = this.entries.get(playerUUID);
+        return entry != null && !entry.isExpired(System.nanoTime());
+    }
+
+    /**
+     * Removes and returns the prefetched data for a player.
+     * @param playerUUID UUID of the player.
+     * @return Tuple of the player's snapshot and their party's snapshot, or null if nothing fresh was stored.
+     */
+    @Nullable
+    public Tuple<PartyPlayerSnapshot, PartySnapshot> consume(@NotNull final UUID playerUUID) {
+        final Entry entry = this.entries.remove(playerUUID);
+        unindex(playerUUID, entry);
+
+        if(entry == null || entry.isExpired(System.nanoTime())) {
+            return null;
+        }
+
+        return entry.data();
+    }
+
+    /**
+     * Removes the prefetched data for a player without using it.
+     * @param playerUUID UUID of the player.
+     */
+    public void invalidate(@NotNull final UUID playerUUID) {
+        this.playerInvalidations.put(playerUUID, System.nanoTime());
+        unindex(playerUUID, this.entries.remove(playerUUID));
+    }
+
+    /**
+     * Removes the prefetched data of every player in a given party.
+     * Used when the party changes, so players don't join with an outdated copy of it.
+     * @param nanoID NanoID of the party.
+     */
+    public void invalidateParty(@NotNull final String nanoID) {
+        this.partyInvalidations.put(nanoID, System.nanoTime());
+        final Set<UUID> members = this.partyMembers.remove(nanoID);
+
+        if(members != null) {
+            members.forEach(this.entries::remove);
+        }
+    }
+
+    /**
+     * Removes every entry that has expired, and forgets invalidations that no stored data can be older than.
+     */
+    public void purgeExpired() {
+        final long now = System.nanoTime();
+        this.playerInvalidations.values().removeIf(invalidatedAt -> now - invalidatedAt > ttl);
+        this.partyInvalidations.values().removeIf(invalidatedAt -> now - invalidatedAt > ttl);
+
+        this.entries.entrySet().removeIf(entry -> {
+            if(!entry.getValue().isExpired(now)) {
+                return false;
+            }
+
+            unindex(entry.getKey(), entry.getValue());
+            return true;
+        });
+    }
+
+    /**
+     * Get the number of stored entries, including ones that have expired but were not purged yet.
+     * @return Number of entries.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Check if a player, or the party in their prefetched data, was invalidated since the data was read.
+     * @param playerUUID UUID of the player.
+     * @param data Tuple of the player's snapshot and their party's snapshot.
+     * @param fetchedAt Value of System.nanoTime() from right before the data was read.
+     * @return true if the data is outdated, false if not.
+     */
+    private boolean isInvalidatedSince(@NotNull final UUID playerUUID, @NotNull final Tuple<PartyPlayerSnapshot, PartySnapshot> data, final long fetchedAt) {
+        final Long playerInvalidatedAt = this.playerInvalidations.get(playerUUID);
+        if(playerInvalidatedAt != null && playerInvalidatedAt - fetchedAt >= 0) {
+            return true;
+        }
+
+        if(data.getRight() == null) {
+            return false;
+        }
+
+        final Long partyInvalidatedAt = this.partyInvalidations.get(data.getRight().nanoID());
+        return partyInvalidatedAt != null && partyInvalidatedAt - fetchedAt >= 0;
+    }
+
+    /**
+     * Removes a player from the party index of a removed entry.
+     * @param playerUUID UUID of the player.
+     * @param entry Entry that was removed, or null if there was none.
+     */
+    private void unindex(@NotNull final UUID playerUUID, @Nullable final Entry entry) {
+        if(entry == null || entry.data().getRight() == null) {
+            return;
+        }
+
+        this.partyMembers.computeIfPresent(entry.data().getRight().nanoID(), (nanoID, members) -> {
+            members.remove(playerUUID);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    /**
+     * Prefetched data and the time it stops being valid.
+     * @param data Tuple of the player's snapshot and their party's snapshot.
+     * @param expiresAt Value of System.nanoTime() after which the entry is expired.
+     */
+    private record Entry(Tuple<PartyPlayerSnapshot, PartySnapshot> data, long expiresAt) {
+
+        /**
+         * Check if the entry has expired.
+         * @param now Current value of System.nanoTime().
+         * @return true if it expired, false if not.
+         */
+        private boolean isExpired(final long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
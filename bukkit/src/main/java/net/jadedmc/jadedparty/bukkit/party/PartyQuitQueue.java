@@ -0,0 +1,183 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.nanoid.NanoID;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects players who left the server and processes them together once per tick.
+ * Each affected party has its online members counted once, no matter how many of its members left,
+ * and player documents are deleted from the cache with one request.
+ * Only used from the main thread.
+ */
+public class PartyQuitQueue {
+    private final JadedPartyBukkit plugin;
+    private final BukkitTask task;
+    private List<Quit> pending = new ArrayList<>();
+
+    /**
+     * Creates the queue and starts processing it every tick.
+     * @param plugin Instance of the plugin.
+     */
+    public PartyQuitQueue(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+        this.task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::flush, 1, 1);
+    }
+
+    /**
+     * Queues a player who left the server.
+     * @param playerUUID UUID of the player.
+     * @param partyPlayer Their cached PartyPlayer, used to find their role and party.
+     */
+    public void add(@NotNull final UUID playerUUID, @Nullable final PartyPlayer partyPlayer) {
+        if(partyPlayer == null) {
+            this.pending.add(new Quit(playerUUID, PartyRole.NONE, null));
+        }
+        else {
+            this.pending.add(new Quit(playerUUID, partyPlayer.getRole(), partyPlayer.getPartyNanoID()));
+        }
+    }
+
+    /**
+     * Processes every queued quit.
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    /**
+     * Processes every queued quit.
+     * @param shuttingDown Whether the plugin is being disabled. If it is, cache writes run on the calling thread,
+     *                     since async tasks can no longer be scheduled.
+     */
+    private void flush(final boolean shuttingDown) {
+        if(this.pending.isEmpty()) {
+            return;
+        }
+
+        final List<Quit> quits = this.pending;
+        this.pending = new ArrayList<>();
+
+        // Group the quits by party, remembering if the party's leader was one of them.
+        final Map<Party, Boolean> parties = new IdentityHashMap<>();
+        for(final Quit quit : quits) {
+            final Party party = getParty(quit);
+
+            if(party != null) {
+                parties.merge(party, quit.role() == PartyRole.LEADER, Boolean::logicalOr);
+            }
+        }
+
+        // Delete parties from the local cache if their leader left or no one else is online.
+        parties.forEach((party, leaderLeft) -> {
+            if(!leaderLeft && party.getOnlinePlayerCount() > 0) {
+                return;
+            }
+
+            plugin.getPartyManager().deleteLocalParty(party);
+
+            // If the server is standalone, also disband the party.
+            if(plugin.getConfigManager().isStandalone()) {
+                if(shuttingDown) {
+                    // One party failing to disband shouldn't stop the others, or the players below, from being removed.
+                    try {
+                        party.disbandNow();
+                    }
+                    catch (Exception exception) {
+                        plugin.getPartyLogger().warning("Could not disband party " + party.getNanoID() + " while shutting down.", exception);
+                    }
+                }
+                else {
+                    party.disband();
+                }
+            }
+        });
+
+        // If the server is standalone, also remove the players from the remote cache.
+        if(plugin.getConfigManager().isStandalone()) {
+            final List<String> uuids = new ArrayList<>(quits.size());
+            quits.forEach(quit -> uuids.add(quit.uuid().toString()));
+
+            final Runnable deletePlayers = () -> {
+                plugin.getConfigManager().getCache().deletePlayerDocuments(uuids);
+                plugin.getPartyLogger().debug(LogCategory.CACHE, () -> "Deleted " + uuids.size() + " PartyPlayers.");
+            };
+
+            // The parties above were already disbanded on this thread, so the players can be deleted right away.
+            if(shuttingDown) {
+                deletePlayers.run();
+            }
+            else {
+                // Delayed so it runs after the player updates queued by disband().
+                plugin.getServer().getScheduler().runTaskLaterAsynchronously(plugin, deletePlayers, 5);
+            }
+        }
+
+        plugin.getPartyLogger().debug(LogCategory.CACHE, () -> "Processed " + quits.size() + " quits across " + parties.size() + " parties.");
+    }
+
+    /**
+     * Processes anything still queued and stops processing every tick.
+     * Used when the plugin is disabled, so every cache write runs on the calling thread.
+     */
+    public void shutdown() {
+        this.task.cancel();
+        flush(true);
+    }
+
+    /**
+     * Finds the local party of a player who left.
+     * @param quit Player who left.
+     * @return Their party, or null if they were not in one.
+     */
+    @Nullable
+    private Party getParty(@NotNull final Quit quit) {
+        if(quit.partyNanoID() != null) {
+            return plugin.getPartyManager().getLocalPartyFromNanoID(NanoID.fromString(quit.partyNanoID()));
+        }
+
+        return plugin.getPartyManager().getLocalPartyFromPlayer(quit.uuid());
+    }
+
+    /**
+     * A player who left the server.
+     * @param uuid UUID of the player.
+     * @param role Role they had in their party when they left.
+     * @param partyNanoID NanoID of their party, or null if unknown.
+     */
+    private record Quit(UUID uuid, PartyRole role, String partyNanoID) {}
+}
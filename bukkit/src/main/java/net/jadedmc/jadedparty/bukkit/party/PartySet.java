@@ -26,19 +26,99 @@ package net.jadedmc.jadedparty.bukkit.party;
 
 import net.jadedmc.jadedparty.bukkit.utils.player.PluginPlayer;
 import net.jadedmc.nanoid.NanoID;
-import org.bson.Document;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Stores a HashSet of {@link net.jadedmc.jadedparty.bukkit.party.Party} objects.
+ * Stores a set of {@link net.jadedmc.jadedparty.bukkit.party.Party} objects, indexed by NanoID.
+ * The parties are kept in a map keyed by their NanoID, so the index is the set itself and can never fall out of sync.
+ * Only holds one party per NanoID. Adding a party replaces any other copy with the same NanoID.
+ * Safe to use from multiple threads, and safe to iterate while other threads change the set.
  */
-public class PartySet extends HashSet<Party> {
+public class PartySet implements Iterable<Party> {
+    private final Map<String, Party> parties = new ConcurrentHashMap<>();
+    private final Collection<Party> values = Collections.unmodifiableCollection(parties.values());
+
+    /**
+     * Adds a party to the set.
+     * @param party Party to add.
+     * @return true if the party was not already in the set.
+     */
+    public boolean add(@NotNull final Party party) {
+        return this.parties.put(party.getNanoID().toString(), party) != party;
+    }
+
+    /**
+     * Removes a party from the set.
+     * Does nothing if a different copy of the party is stored.
+     * @param party Party to remove.
+     * @return true if the party was in the set.
+     */
+    public boolean remove(@NotNull final Party party) {
+        return this.parties.remove(party.getNanoID().toString(), party);
+    }
+
+    /**
+     * Removes every party from the set.
+     */
+    public void clear() {
+        this.parties.clear();
+    }
+
+    /**
+     * Check if a party is in the set.
+     * @param party Party to check for.
+     * @return true if this copy of the party is stored, false if not.
+     */
+    public boolean contains(@NotNull final Party party) {
+        return this.parties.get(party.getNanoID().toString()) == party;
+    }
+
+    /**
+     * Check if the set is empty.
+     * @return true if no parties are stored, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.parties.isEmpty();
+    }
+
+    /**
+     * Get the number of stored parties.
+     * @return Number of parties.
+     */
+    public int size() {
+        return this.parties.size();
+    }
+
+    /**
+     * Gets a read-only view of the stored parties.
+     * Safe to iterate while other threads change the set.
+     * @return Every stored party.
+     */
+    @NotNull
+    public Collection<Party> values() {
+        return this.values;
+    }
+
+    /**
+     * Iterates over the stored parties, without allowing them to be removed through the iterator.
+     * Safe to use while other threads change the set.
+     * @return Iterator over every stored party.
+     */
+    @NotNull
+    @Override
+    public Iterator<Party> iterator() {
+        return this.values.iterator();
+    }
+
     /**
      * Checks if one of the parties in the Set have a given Player.
      * @param playerUUID UUID of the player to check the parties for.
@@ -46,7 +126,7 @@ public class PartySet extends HashSet<Party> {
      */
     public boolean containsPlayer(@NotNull final UUID playerUUID) {
         // Loop through each party looking for the player.
-        for(Party party : this) {
+        for(final Party party : this.parties.values()) {
             // If the player is found, exit the loop.
             if(party.getPlayers().contains(playerUUID)) {
                 return true;
@@ -74,7 +154,7 @@ public class PartySet extends HashSet<Party> {
     @Nullable
     public Party getFromPlayer(@NotNull final UUID playerUUID) {
         // Loop through each party looking for the player.
-        for(Party party : this) {
+        for(final Party party : this.parties.values()) {
             // If the player is found, return that party.
             if (party.getPlayers().contains(playerUUID)) {
                 return party;
@@ -116,7 +196,7 @@ public class PartySet extends HashSet<Party> {
     @Nullable
     public Party getFromUsername(@NotNull String playerUsername) {
         // Loop through each party looking for the player.
-        for(Party party : this) {
+        for(final Party party : this.parties.values()) {
             // If the player is found, return that party.
             if (party.getPlayers().contains(playerUsername)) {
                 return party;
@@ -135,12 +215,6 @@ public class PartySet extends HashSet<Party> {
      */
     @Nullable
     public Party getFromNanoID(@NotNull final NanoID partyNanoID) {
-        for(Party party : this) {
-            if(party.getNanoID().equals(partyNanoID)) {
-                return party;
-            }
-        }
-
-        return null;
+        return this.parties.get(partyNanoID.toString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigSnapshot;
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads existing parties from the cache when the server starts, so players rejoining after a restart
+ * find their party already fetched instead of waiting on the cache.
+ * Party ids are listed once, then the parties are read in chunks by a fixed number of async tasks,
+ * so only a few chunks are read at a time and chunks that have not started by the deadline are skipped.
+ * Loaded parties are stored in the {@link PartyPrefetchCache}, keyed by each member.
+ * Every party on the network is read, since the cache doesn't record which server a player was on,
+ * so it is disabled by default.
+ */
+public class PartyWarmup {
+    private final JadedPartyBukkit plugin;
+    private final AtomicInteger loadedChunks = new AtomicInteger();
+    private final AtomicInteger loadedParties = new AtomicInteger();
+    private final AtomicInteger loadedPlayers = new AtomicInteger();
+    private final AtomicInteger skippedChunks = new AtomicInteger();
+    private final AtomicInteger nextChunk = new AtomicInteger();
+    private final AtomicInteger remainingChunks = new AtomicInteger();
+    private volatile int totalChunks = 0;
+    private volatile long startTime = 0;
+
+    /**
+     * Creates the warm-up.
+     * @param plugin Instance of the plugin.
+     */
+    public PartyWarmup(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts loading parties in the background.
+     * Does nothing in standalone mode or if warm-up is disabled in config.yml.
+     */
+    public void start() {
+        final ConfigSnapshot config = plugin.getConfigManager().getSnapshot();
+        if(config.standalone() || !config.warmupEnabled()) {
+            return;
+        }
+
+        this.startTime = System.nanoTime();
+        final long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(config.warmupBudget());
+        final long ttl = TimeUnit.SECONDS.toNanos(config.warmupTTL());
+
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            // List every party once, then split them into chunks.
+            final List<String> nanoIDs = new ArrayList<>(plugin.getConfigManager().getCache().getPartyIDs());
+            final int chunkSize = config.warmupChunkSize();
+            final List<List<String>> chunks = new ArrayList<>();
+
+            for(int start = 0; start < nanoIDs.size(); start += chunkSize) {
+                chunks.add(nanoIDs.subList(start, Math.min(start + chunkSize, nanoIDs.size())));
+            }
+
+            this.totalChunks = chunks.size();
+            this.remainingChunks.set(chunks.size());
+            plugin.getPartyLogger().info("Warming up " + nanoIDs.size() + " parties in " + totalChunks + " chunks.");
+
+            if(totalChunks == 0) {
+                logResult();
+                return;
+            }
+
+            // Only a fixed number of tasks load chunks, each taking the next chunk once it finishes its current one.
+            final int workers = Math.min(config.warmupParallelism(), totalChunks);
+            for(int worker = 0; worker < workers; worker++) {
+                plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> loadChunks(chunks, deadline, ttl));
+            }
+        });
+    }
+
+    /**
+     * Loads chunks one after another until none are left.
+     * @param chunks Every chunk of the warm-up.
+     * @param deadline Value of System.nanoTime() after which remaining chunks are skipped.
+     * @param ttl How long the loaded parties are kept, in nanoseconds.
+     */
+    private void loadChunks(@NotNull final List<List<String>> chunks, final long deadline, final long ttl) {
+        int chunk;
+        while((chunk = nextChunk.getAndIncrement()) < chunks.size()) {
+            loadChunk(chunks.get(chunk), deadline, ttl);
+        }
+    }
+
+    /**
+     * Reads one chunk of parties and stores them for each of their members.
+     * @param nanoIDs NanoIDs of the parties in the chunk.
+     * @param deadline Value of System.nanoTime() after which remaining chunks are skipped.
+     * @param ttl How long the loaded parties are kept, in nanoseconds.
+     */
+    private void loadChunk(@NotNull final List<String> nanoIDs, final long deadline, final long ttl) {
+        try {
+            // Stay within the configured budget. Skipped parties are fetched when their players join.
+            if(System.nanoTime() >= deadline) {
+                skippedChunks.incrementAndGet();
+                return;
+            }
+
+            final long fetchedAt = System.nanoTime();
+            for(final PartySnapshot party : plugin.getConfigManager().getCache().getParties(nanoIDs)) {
+                for(final PartyPlayerSnapshot player : party.players()) {
+                    plugin.getPartyManager().getPrefetchCache().put(player.uniqueId(), new Tuple<>(player, party), fetchedAt, ttl);
+                }
+
+                loadedParties.incrementAndGet();
+                loadedPlayers.addAndGet(party.players().size());
+            }
+
+            final int chunks = loadedChunks.incrementAndGet();
+            plugin.getPartyLogger().debug(LogCategory.CACHE, () -> "[WARMUP] Loaded chunk " + chunks + "/" + totalChunks + " (" + loadedParties.get() + " parties so far).");
+        }
+        catch (Exception exception) {
+            skippedChunks.incrementAndGet();
+            plugin.getPartyLogger().warning("Could not load a chunk of parties during warm-up.", exception);
+        }
+        finally {
+            // Only the chunk that finishes last logs the result.
+            if(remainingChunks.decrementAndGet() == 0) {
+                logResult();
+            }
+        }
+    }
+
+    /**
+     * Logs how the warm-up went.
+     */
+    private void logResult() {
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        plugin.getPartyLogger().info("Warm-up finished in " + elapsed + "ms. Loaded " + loadedParties.get() + " parties (" + loadedPlayers.get() + " players) from " + loadedChunks.get() + " chunks, skipped " + skippedChunks.get() + " chunks.");
+    }
+
+    /**
+     * Get the number of chunks loaded so far.
+     * @return Loaded chunks.
+     */
+    public int getLoadedChunks() {
+        return loadedChunks.get();
+    }
+
+    /**
+     * Get the number of parties loaded so far.
+     * @return Loaded parties.
+     */
+    public int getLoadedParties() {
+        return loadedParties.get();
+    }
+
+    /**
+     * Get the number of party members whose party was loaded so far.
+     * @return Loaded players.
+     */
+    public int getLoadedPlayers() {
+        return loadedPlayers.get();
+    }
+
+    /**
+     * Get the number of chunks skipped because the budget ran out or they failed to load.
+     * @return Skipped chunks.
+     */
+    public int getSkippedChunks() {
+        return skippedChunks.get();
+    }
+
+    /**
+     * Get the total number of chunks the warm-up was split into.
+     * @return Total chunks.
+     */
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+}
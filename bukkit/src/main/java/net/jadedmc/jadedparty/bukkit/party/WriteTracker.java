@@ -0,0 +1,67 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the writes of a party or party player to the cache, to know if its latest changes were saved.
+ * Every write gets a generation number when it is queued, and stays outstanding until that write is saved.
+ * Writes may finish in any order, so a newer write finishing first never hides an older one still in flight.
+ * Writes that fail stay outstanding, so the object is written again when the plugin shuts down.
+ */
+public class WriteTracker {
+    private final AtomicLong nextGeneration = new AtomicLong();
+    private final Set<Long> outstanding = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Records that a write was queued.
+     * @return Generation of the write, to pass to {@link #saved(long)} once it is written.
+     */
+    public long queue() {
+        final long generation = nextGeneration.incrementAndGet();
+        outstanding.add(generation);
+        return generation;
+    }
+
+    /**
+     * Records that a write was saved to the cache.
+     * Only that write stops being outstanding, any others queued before or after it are still tracked.
+     * @param generation Generation of the write, from {@link #queue()}.
+     */
+    public void saved(final long generation) {
+        outstanding.remove(generation);
+    }
+
+    /**
+     * Check if any queued write has not been saved yet.
+     * @return true if a write is still pending, false if not.
+     */
+    public boolean isPending() {
+        return !outstanding.isEmpty();
+    }
+}
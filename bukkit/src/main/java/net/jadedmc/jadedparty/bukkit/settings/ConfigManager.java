@@ -31,12 +31,16 @@ import net.jadedmc.jadedparty.bukkit.cache.CacheType;
 import net.jadedmc.jadedparty.bukkit.cache.types.MemoryCache;
 import net.jadedmc.jadedparty.bukkit.cache.types.RedisCache;
 import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatComponents;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Manages everything configurable in the plugin.
@@ -48,6 +52,7 @@ public final class ConfigManager {
     private final File configFile;
     private FileConfiguration messages;
     private final File messagesFile;
+    private volatile ConfigSnapshot snapshot;
 
     /**
      * Sets up and loads the plugin configuration.
@@ -69,12 +74,18 @@ public final class ConfigManager {
         }
         messages = YamlConfiguration.loadConfiguration(messagesFile);
 
+        // Cache the configured values and apply the debug settings to the logger.
+        this.snapshot = createSnapshot();
+        plugin.getPartyLogger().configure(snapshot.debugMode(), snapshot.debugCategories());
+
         // Get and load the proper cache system.
-        final CacheType cacheType = CacheType.valueOf(this.config.getString("Cache.type").toUpperCase());
-        switch (cacheType) {
-            case REDIS -> this.cache = new RedisCache(plugin);
+        switch (snapshot.cacheType()) {
+            case REDIS -> this.cache = new RedisCache(plugin, snapshot.cacheThreads());
             default -> this.cache = new MemoryCache(plugin);
         }
+
+        // Pre-render the messages that don't change per player.
+        ChatComponents.loadMessages(this);
     }
 
     /**
@@ -93,6 +104,16 @@ public final class ConfigManager {
         return config;
     }
 
+    /**
+     * Gets the values of config.yml as they were when the configuration was last loaded.
+     * Safe to call from any thread.
+     * @return Current configuration snapshot.
+     */
+    @NotNull
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * Gets a configurable message from the config.
      * @param configMessage Targeted Configurable Message.
@@ -149,7 +170,27 @@ public final class ConfigManager {
      * @return true if in debug mode, false otherwise.
      */
     public boolean isDebugMode() {
-        return this.config.getBoolean("debugMode");
+        return this.snapshot.debugMode();
+    }
+
+    /**
+     * Get the categories of debug messages that should be logged in debug mode.
+     * Unknown categories in config.yml are ignored.
+     * @return Enabled debug categories.
+     */
+    public Set<LogCategory> getDebugCategories() {
+        final Set<LogCategory> categories = EnumSet.noneOf(LogCategory.class);
+
+        for(final String category : this.config.getStringList("debugCategories")) {
+            try {
+                categories.add(LogCategory.valueOf(category.toUpperCase()));
+            }
+            catch (IllegalArgumentException exception) {
+                plugin.getLogger().warning("Unknown debug category in config.yml: " + category);
+            }
+        }
+
+        return categories;
     }
 
     /**
@@ -158,6 +199,52 @@ public final class ConfigManager {
      * @return true if in standalone mode, false otherwise.
      */
     public boolean isStandalone() {
-        return this.config.getBoolean("standalone");
+        return this.snapshot.standalone();
+    }
+
+    /**
+     * Reloads config.yml and messages.yml from the disk.
+     * Readers keep using the previous snapshot until the new one is published.
+     * Changing the cache type still requires a restart.
+     */
+    public void reload() {
+        plugin.reloadConfig();
+        this.config = plugin.getConfig();
+        this.messages = YamlConfiguration.loadConfiguration(messagesFile);
+
+        final ConfigSnapshot newSnapshot = createSnapshot();
+        plugin.getPartyLogger().configure(newSnapshot.debugMode(), newSnapshot.debugCategories());
+        this.snapshot = newSnapshot;
+
+        ChatComponents.loadMessages(this);
+    }
+
+    /**
+     * Reads the current values of config.yml into a new snapshot.
+     * @return Created snapshot.
+     */
+    @NotNull
+    private ConfigSnapshot createSnapshot() {
+        return new ConfigSnapshot(
+                config.getBoolean("debugMode"),
+                getDebugCategories(),
+                config.getBoolean("standalone"),
+                CacheType.valueOf(config.getString("Cache.type", "MEMORY").toUpperCase()),
+                config.getString("Cache.Redis.host", "127.0.0.1"),
+                config.getInt("Cache.Redis.port", 6379),
+                config.getString("Cache.Redis.username", ""),
+                config.getString("Cache.Redis.password", ""),
+                Math.max(1, config.getInt("Cache.threads", 4)),
+                config.getLong("Cache.shutdownTimeout", 5000),
+                config.getBoolean("Cache.Warmup.enabled", false),
+                config.getLong("Cache.Warmup.budget", 5000),
+                Math.max(1, config.getInt("Cache.Warmup.chunkSize", 500)),
+                Math.max(1, config.getInt("Cache.Warmup.parallelism", 2)),
+                config.getLong("Cache.Warmup.ttl", 60),
+                config.getString("Party.ID.alphabet", "abcdefghijklmnopqrstuvwxyz0123456789"),
+                config.getInt("Party.ID.minLength", 8),
+                config.getInt("Party.ID.maxLength", 8),
+                config.getString("Party.ID.prefix", ""),
+                config.getString("Player.prefix", ""));
     }
 }
\ No newline at end of file
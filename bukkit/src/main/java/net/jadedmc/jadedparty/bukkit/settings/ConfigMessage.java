@@ -31,6 +31,8 @@ import org.jetbrains.annotations.NotNull;
  * Used to easily access configured messages and acts as a failsafe if one of them is missing.
  */
 public enum ConfigMessage {
+    ADMIN_ERROR_NO_PERMISSION("Messages.Admin.Error.NO_PERMISSION", "<red><bold>Error</bold> <dark_gray>» <red>You do not have access to that command."),
+    ADMIN_RELOAD_RELOADED("Messages.Admin.Reload.RELOADED", "<green><bold>JadedParty</bold> <dark_gray>» <green>Configuration files reloaded."),
     PARTY_ACCEPT_USAGE("Messages.Party.Accept.USAGE", "<red><bold>Usage</bold> <dark_gray>» <red>/party accept [player]"),
     PARTY_CREATE_PARTY_CREATED("Messages.Party.Create.PARTY_CREATED", "<green><bold>Party</bold> <dark_gray>» <green>Party has been created."),
     PARTY_DEMOTE_CANNOT_DEMOTE_MEMBER("Messages.Party.Demote.CANNOT_DEMOTE_MEMBER", "<green><bold>Party</bold> <dark_gray>» <white>%target_name% <green>has been demoted to member."),
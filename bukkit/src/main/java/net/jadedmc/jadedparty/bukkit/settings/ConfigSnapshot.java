@@ -0,0 +1,85 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.settings;
+
+import net.jadedmc.jadedparty.bukkit.cache.CacheType;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+
+/**
+ * An immutable copy of the values in config.yml.
+ * Created whenever the configuration is loaded, so frequently used settings don't have to be read from YAML each time.
+ * @param debugMode Whether debug mode is enabled.
+ * @param debugCategories Categories of debug messages to log.
+ * @param standalone Whether the plugin is in standalone mode.
+ * @param cacheType Configured cache type.
+ * @param redisHost Host of the Redis server.
+ * @param redisPort Port of the Redis server.
+ * @param redisUsername Username used to connect to Redis.
+ * @param redisPassword Password used to connect to Redis.
+ * @param cacheThreads Number of threads async cache requests run on.
+ * @param shutdownTimeout How long to wait for pending cache writes when the plugin is disabled, in milliseconds.
+ * @param warmupEnabled Whether parties are loaded from the cache when the server starts. Disabled by default.
+ * @param warmupBudget Maximum time spent loading parties on startup, in milliseconds.
+ * @param warmupChunkSize Number of parties read from the cache per request during warm-up.
+ * @param warmupParallelism Maximum number of chunks loaded at the same time during warm-up.
+ * @param warmupTTL How long parties loaded during warm-up are kept for players who have not rejoined, in seconds.
+ * @param partyIdAlphabet Characters used when generating party ids.
+ * @param partyIdMinLength Minimum length of generated party ids.
+ * @param partyIdMaxLength Maximum length of generated party ids.
+ * @param partyIdPrefix Prefix added in front of generated party ids.
+ * @param playerPrefix Prefix shown in front of player names.
+ */
+public record ConfigSnapshot(
+        boolean debugMode,
+        @NotNull Set<LogCategory> debugCategories,
+        boolean standalone,
+        @NotNull CacheType cacheType,
+        @NotNull String redisHost,
+        int redisPort,
+        @NotNull String redisUsername,
+        @NotNull String redisPassword,
+        int cacheThreads,
+        long shutdownTimeout,
+        boolean warmupEnabled,
+        long warmupBudget,
+        int warmupChunkSize,
+        int warmupParallelism,
+        long warmupTTL,
+        @NotNull String partyIdAlphabet,
+        int partyIdMinLength,
+        int partyIdMaxLength,
+        @NotNull String partyIdPrefix,
+        @NotNull String playerPrefix) {
+
+    /**
+     * Creates the snapshot, making sure the debug categories can't be modified.
+     */
+    public ConfigSnapshot {
+        debugCategories = Set.copyOf(debugCategories);
+    }
+}
@@ -27,6 +27,9 @@ package net.jadedmc.jadedparty.bukkit.utils;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
 import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.utils.chat.ChatUtils;
+import net.jadedmc.jadedparty.bukkit.utils.logging.PartyLogger;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
 import net.kyori.adventure.platform.bukkit.BukkitAudiences;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -46,6 +49,10 @@ public class JadedUtils {
         return adventure;
     }
 
+    public static PartyLogger getPartyLogger() {
+        return plugin.getPartyLogger();
+    }
+
     public static void sendBungeecordMessage(Player player, String channel, String subChannel, String message) {
 
         // Creates the message
@@ -59,11 +66,11 @@ public class JadedUtils {
 
     public static void sendMessage(@NotNull final UUID playerUUID, @NotNull final String message) {
         plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            plugin.getConfigManager().getCache().publish("jadedparty", "message", playerUUID + " " + message);
+            plugin.getConfigManager().getCache().publish(CacheKeys.PLUGIN_CHANNEL, "message", playerUUID + " " + ChatUtils.centerLines(message));
         });
     }
 
     public static void sendToServer(UUID uuid, String server) {
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> plugin.getConfigManager().getCache().publish("jadedparty", "connect " + uuid.toString() + " " + server));
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> plugin.getConfigManager().getCache().publish(CacheKeys.PLUGIN_CHANNEL, "connect " + uuid.toString() + " " + server));
     }
 }
\ No newline at end of file
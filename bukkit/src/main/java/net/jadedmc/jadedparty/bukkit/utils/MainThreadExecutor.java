@@ -0,0 +1,62 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.utils;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks on the server's main thread.
+ * Used to continue an async pipeline once its cache requests are done, since local parties should only be changed
+ * from the main thread.
+ */
+public class MainThreadExecutor implements Executor {
+    private final JadedPartyBukkit plugin;
+
+    /**
+     * Creates the executor.
+     * @param plugin Instance of the plugin.
+     */
+    public MainThreadExecutor(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Runs a task on the main thread.
+     * Runs it right away if already on the main thread, otherwise it runs on the next tick.
+     * @param task Task to run.
+     */
+    @Override
+    public void execute(@NotNull final Runnable task) {
+        if(plugin.getServer().isPrimaryThread()) {
+            task.run();
+            return;
+        }
+
+        plugin.getServer().getScheduler().runTask(plugin, task);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.utils.chat;
+
+import net.jadedmc.jadedparty.bukkit.settings.ConfigManager;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigMessage;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores chat components for lines that never change, so they are only parsed once.
+ * Components are immutable, so the same instance can be sent to any number of players.
+ */
+public class ChatComponents {
+    /**
+     * The divider line shown above and below most command menus.
+     */
+    public static final String DIVIDER = "<green>▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬</green>";
+
+    // Constant lines from the code. These never need to be cleared.
+    private static final Map<String, Component> staticComponents = new ConcurrentHashMap<>();
+
+    // Lines from messages.yml. These are rebuilt whenever the configuration is loaded.
+    private static final Map<String, Component> messageComponents = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the component of a constant line, parsing it the first time it is requested.
+     * Only use this for lines that do not contain any player-specific information.
+     * @param message MiniMessage line to get the component of.
+     * @return Parsed component.
+     */
+    @NotNull
+    public static Component get(@NotNull final String message) {
+        final Component cached = getCached(message);
+        if(cached != null) {
+            return cached;
+        }
+
+        return staticComponents.computeIfAbsent(message, ChatUtils::translate);
+    }
+
+    /**
+     * Gets an already parsed component for a line.
+     * Returns null if the line has not been pre-rendered.
+     * @param message MiniMessage line to get the component of.
+     * @return Parsed component, or null if there is none.
+     */
+    @Nullable
+    public static Component getCached(@NotNull final String message) {
+        final Component component = staticComponents.get(message);
+
+        if(component != null) {
+            return component;
+        }
+
+        return messageComponents.get(message);
+    }
+
+    /**
+     * Pre-renders every configured message that does not contain placeholders.
+     * Called whenever messages.yml is loaded.
+     * @param configManager Config manager to load the messages from.
+     */
+    public static void loadMessages(@NotNull final ConfigManager configManager) {
+        messageComponents.clear();
+
+        for(final ConfigMessage configMessage : ConfigMessage.values()) {
+            final String message = configManager.getMessage(configMessage);
+
+            // Messages with placeholders change per player, so they have to be parsed each time.
+            if(message.contains("%")) {
+                continue;
+            }
+
+            messageComponents.put(message, ChatUtils.translate(message));
+        }
+    }
+}
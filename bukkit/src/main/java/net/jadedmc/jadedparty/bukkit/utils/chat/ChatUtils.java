@@ -2,6 +2,8 @@ package net.jadedmc.jadedparty.bukkit.utils.chat;
 
 import net.jadedmc.jadedparty.bukkit.utils.JadedUtils;
 import net.jadedmc.jadedparty.bukkit.utils.VersionUtils;
+import net.jadedmc.jadedparty.bukkit.utils.logging.LogCategory;
+import net.jadedmc.jadedparty.common.utils.ColorUtils;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.md_5.bungee.api.ChatColor;
@@ -10,14 +12,16 @@ import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Some methods to make sending chat messages easier.
  */
 public class ChatUtils {
     private final static int CENTER_PX = 154;
+    private final static int CENTERED_CACHE_LIMIT = 512;
+    private final static Map<String, String> centeredCache = new ConcurrentHashMap<>();
 
     /**
      * Broadcast a MiniMessage message to all online players.
@@ -49,6 +53,12 @@ public class ChatUtils {
             return message;
         }
 
+        // Most centered lines are constant headers, so reuse their padding.
+        final String cached = centeredCache.get(message);
+        if(cached != null) {
+            return cached;
+        }
+
         String translated = ChatColor.translateAlternateColorCodes('&', MiniMessage.miniMessage().stripTags(toLegacy(message)));
 
         int messagePxSize = 0;
@@ -64,8 +74,7 @@ public class ChatUtils {
                 isBold = c == 'l' || c == 'L';
             }
             else {
-                DefaultFontInfo dFI = DefaultFontInfo.getDefaultFontInfo(c);
-                messagePxSize += isBold ? dFI.getBoldLength() : dFI.getLength();
+                messagePxSize += DefaultFontInfo.getLength(c, isBold);
                 messagePxSize++;
             }
         }
@@ -80,7 +89,40 @@ public class ChatUtils {
             compensated += spaceLength;
         }
 
-        return sb + message;
+        final String centered = sb + message;
+
+        // Stop caching once the limit is reached, so per-player lines can't grow the cache forever.
+        if(centeredCache.size() < CENTERED_CACHE_LIMIT) {
+            centeredCache.put(message, centered);
+        }
+
+        return centered;
+    }
+
+    /**
+     * Centers every line of a message that starts with the "<center>" tag.
+     * Done before a message is sent to other servers, so the proxy doesn't need the font widths.
+     * @param message Message to center.
+     * @return Message with centered lines, separated by "<newline>".
+     */
+    public static String centerLines(String message) {
+        final String[] lines = message.replaceAll("\n", "<newline>").split("<newline>");
+        final StringBuilder builder = new StringBuilder();
+
+        for(final String line : lines) {
+            if(builder.length() > 0) {
+                builder.append("<newline>");
+            }
+
+            if(line.startsWith("<center>")) {
+                builder.append(centerText(line.replaceFirst("<center>", "")));
+            }
+            else {
+                builder.append(line);
+            }
+        }
+
+        return builder.toString();
     }
 
     /**
@@ -90,7 +132,16 @@ public class ChatUtils {
      */
     public static void chat(CommandSender commandSender, String message) {
         JadedUtils.getAdventure().sender(commandSender).sendMessage(translate(message));
-        System.out.println("[MESSAGE] " + commandSender.getName() + " received: " + message);
+        JadedUtils.getPartyLogger().debug(LogCategory.CHAT, () -> commandSender.getName() + " received: " + message);
+    }
+
+    /**
+     * Send an already parsed component to a given CommandSender.
+     * @param commandSender CommandSender to send message to.
+     * @param component Component to send.
+     */
+    public static void chat(CommandSender commandSender, Component component) {
+        JadedUtils.getAdventure().sender(commandSender).sendMessage(component);
     }
 
     /**
@@ -99,26 +150,13 @@ public class ChatUtils {
      * @return Translated Message.
      */
     public static Component translate(String message) {
-        // Checks for the "<center>" tag, which centers a message.
-        final String[] lines = message.replaceAll("\n", "<newline>").split("<newline>");
-        final StringBuilder builder = new StringBuilder();
-
-        for(final String line : lines) {
-            if(line.startsWith("<center>")) {
-                builder.append(centerText(line.replaceFirst("<center>", ""))).append("<newline>");
-            }
-            else {
-                builder.append(line).append("<newline>");
-            }
-        }
-
-        final String result = builder.toString();
-
-        if(result.contains("<newline>")) {
-            return MiniMessage.miniMessage().deserialize(replaceLegacy(result.substring(0, result.length() - 9)));
+        // Skip parsing if the message has been pre-rendered.
+        final Component cached = ChatComponents.getCached(message);
+        if(cached != null) {
+            return cached;
         }
 
-        return MiniMessage.miniMessage().deserialize(replaceLegacy(result));
+        return MiniMessage.miniMessage().deserialize(replaceLegacy(centerLines(message)));
 
         /*
         if(message.startsWith("<center>")) {
@@ -145,42 +183,8 @@ public class ChatUtils {
      * @return Message with the color codes replaced.
      */
     public static String replaceLegacy(String message) {
-        // If the version is 1.16 or greater, check for hex color codes.
-        if(VersionUtils.getServerVersion() >= 16) {
-            Pattern pattern = Pattern.compile("&#[a-fA-F0-9]{6}");
-            Matcher matcher = pattern.matcher(message);
-
-            while (matcher.find()) {
-                String color = message.substring(matcher.start() + 1, matcher.end());
-                message = message.replace("&" + color, "<reset><color:" + color + ">");
-                matcher = pattern.matcher(message);
-            }
-        }
-
-        // Then replace legacy color codes.
-        return message.replace("§", "&")
-                .replace("&0", "<reset><black>")
-                .replace("&1", "<reset><dark_blue>")
-                .replace("&2", "<reset><dark_green>")
-                .replace("&3", "<reset><dark_aqua>")
-                .replace("&4", "<reset><dark_red>")
-                .replace("&5", "<reset><dark_purple>")
-                .replace("&6", "<reset><gold>")
-                .replace("&7", "<reset><gray>")
-                .replace("&8", "<reset><dark_gray>")
-                .replace("&9", "<reset><blue>")
-                .replace("&a", "<reset><green>")
-                .replace("&b", "<reset><aqua>")
-                .replace("&c", "<reset><red>")
-                .replace("&d", "<reset><light_purple>")
-                .replace("&e", "<reset><yellow>")
-                .replace("&f", "<reset><white>")
-                .replace("&k", "<obfuscated>")
-                .replace("&l", "<bold>")
-                .replace("&m", "<strikethrough>")
-                .replace("&n", "<u>")
-                .replace("&o", "<i>")
-                .replace("&r", "<reset>");
+        // Hex color codes are only supported on 1.16 or greater.
+        return ColorUtils.replaceLegacy(message, VersionUtils.getServerVersion() >= 16);
     }
 
     /**
@@ -102,6 +102,27 @@ public enum DefaultFontInfo {
     SPACE(' ', 3),
     DEFAULT('a', 4);
 
+    // Pixel widths indexed by character, so lookups do not need to scan every value.
+    private static final int[] LENGTHS = new int[128];
+    private static final int[] BOLD_LENGTHS = new int[128];
+
+    static {
+        final DefaultFontInfo[] fontInfos = new DefaultFontInfo[LENGTHS.length];
+
+        // The first value with a character wins, matching the previous linear scan.
+        for(final DefaultFontInfo dFI : values()) {
+            if(dFI != DEFAULT && fontInfos[dFI.character] == null) {
+                fontInfos[dFI.character] = dFI;
+            }
+        }
+
+        for(int c = 0; c < fontInfos.length; c++) {
+            final DefaultFontInfo dFI = fontInfos[c] == null ? DEFAULT : fontInfos[c];
+            LENGTHS[c] = dFI.getLength();
+            BOLD_LENGTHS[c] = dFI.getBoldLength();
+        }
+    }
+
     private final char character;
     private final int length;
 
@@ -130,4 +151,19 @@ public enum DefaultFontInfo {
         }
         return DefaultFontInfo.DEFAULT;
     }
+
+    /**
+     * Gets the pixel length of a character without looking up its DefaultFontInfo.
+     * Characters outside the table use the length of {@link #DEFAULT}.
+     * @param c Character to get the length of.
+     * @param bold Whether the character is bold.
+     * @return Length of the character in pixels.
+     */
+    public static int getLength(final char c, final boolean bold) {
+        if(c >= LENGTHS.length) {
+            return bold ? DEFAULT.getBoldLength() : DEFAULT.getLength();
+        }
+
+        return bold ? BOLD_LENGTHS[c] : LENGTHS[c];
+    }
 }
\ No newline at end of file
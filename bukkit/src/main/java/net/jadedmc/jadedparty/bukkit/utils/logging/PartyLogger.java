@@ -0,0 +1,207 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.utils.logging;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Logs plugin messages from a background thread, so callers never wait on the console.
+ * Messages are queued in a fixed-size ring buffer. If the buffer is full, new messages are dropped instead of blocking.
+ * Debug messages are only built when debug mode and their category are enabled.
+ */
+public class PartyLogger {
+    private static final int BUFFER_SIZE = 1024;
+
+    private final JadedPartyBukkit plugin;
+    private final BlockingQueue<LogEntry> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private final AtomicLong droppedEntries = new AtomicLong();
+    private final boolean[] enabledCategories = new boolean[LogCategory.values().length];
+    private volatile boolean debugMode = false;
+    private volatile boolean running = true;
+    private final Thread thread;
+
+    /**
+     * Creates the logger and starts its logging thread.
+     * @param plugin Instance of the plugin.
+     */
+    public PartyLogger(@NotNull final JadedPartyBukkit plugin) {
+        this.plugin = plugin;
+
+        this.thread = new Thread(this::run, "JadedParty Logger");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Changes which debug messages are logged.
+     * @param debugMode Whether debug mode is enabled.
+     * @param categories Categories to log debug messages for.
+     */
+    public void configure(final boolean debugMode, @NotNull final Collection<LogCategory> categories) {
+        for(final LogCategory category : LogCategory.values()) {
+            this.enabledCategories[category.ordinal()] = categories.contains(category);
+        }
+
+        this.debugMode = debugMode;
+    }
+
+    /**
+     * Check if debug messages of a given category will be logged.
+     * @param category Category to check.
+     * @return true if they are logged, false otherwise.
+     */
+    public boolean isEnabled(@NotNull final LogCategory category) {
+        return debugMode && enabledCategories[category.ordinal()];
+    }
+
+    /**
+     * Logs a debug message if its category is enabled.
+     * The message is only created if it will be logged.
+     * @param category Category of the message.
+     * @param message Supplies the message to log.
+     */
+    public void debug(@NotNull final LogCategory category, @NotNull final Supplier<String> message) {
+        if(!isEnabled(category)) {
+            return;
+        }
+
+        offer(Level.INFO, "[" + category + "] " + message.get(), null);
+    }
+
+    /**
+     * Logs an informational message.
+     * @param message Message to log.
+     */
+    public void info(@NotNull final String message) {
+        offer(Level.INFO, message, null);
+    }
+
+    /**
+     * Logs a warning.
+     * @param message Message to log.
+     */
+    public void warning(@NotNull final String message) {
+        offer(Level.WARNING, message, null);
+    }
+
+    /**
+     * Logs a warning caused by an exception.
+     * @param message Message to log.
+     * @param throwable Exception that caused the warning.
+     */
+    public void warning(@NotNull final String message, @NotNull final Throwable throwable) {
+        offer(Level.WARNING, message, throwable);
+    }
+
+    /**
+     * Stops the logging thread, writing any messages that are still queued.
+     */
+    public void shutdown() {
+        this.running = false;
+        this.thread.interrupt();
+
+        try {
+            this.thread.join(1000);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Write anything left over from the calling thread.
+        drain();
+    }
+
+    /**
+     * Adds a message to the buffer, dropping it if the buffer is full.
+     * @param level Level to log the message at.
+     * @param message Message to log.
+     * @param throwable Exception attached to the message, if any.
+     */
+    private void offer(@NotNull final Level level, @NotNull final String message, final Throwable throwable) {
+        if(!buffer.offer(new LogEntry(level, message, throwable))) {
+            droppedEntries.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes queued messages to the plugin's logger until the logger is shut down.
+     */
+    private void run() {
+        while(running) {
+            try {
+                final LogEntry entry = buffer.poll(1, TimeUnit.SECONDS);
+
+                if(entry != null) {
+                    write(entry);
+                }
+            }
+            catch (InterruptedException exception) {
+                // Interrupted by shutdown(), which writes the remaining messages itself.
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes every message currently in the buffer.
+     */
+    private void drain() {
+        LogEntry entry;
+        while((entry = buffer.poll()) != null) {
+            write(entry);
+        }
+    }
+
+    /**
+     * Writes a single message to the plugin's logger.
+     * Also reports how many messages were dropped since the last write.
+     * @param entry Message to write.
+     */
+    private void write(@NotNull final LogEntry entry) {
+        final long dropped = droppedEntries.getAndSet(0);
+        if(dropped > 0) {
+            plugin.getLogger().warning("Dropped " + dropped + " log messages because the log buffer was full.");
+        }
+
+        plugin.getLogger().log(entry.level(), entry.message(), entry.throwable());
+    }
+
+    /**
+     * A message waiting to be logged.
+     * @param level Level to log the message at.
+     * @param message Message to log.
+     * @param throwable Exception attached to the message, if any.
+     */
+    private record LogEntry(Level level, String message, Throwable throwable) {}
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.utils.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long an operation takes, using power-of-two microsecond buckets.
+ * Bucket i counts samples between 2^i and 2^(i+1) microseconds, so recording never allocates and percentiles are
+ * reported as the upper bound of the bucket they fall in.
+ * Safe to record from multiple threads.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 32;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Creates the histogram.
+     * @param name Name of the operation being measured.
+     */
+    public LatencyHistogram(@NotNull final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one sample.
+     * @param nanos How long the operation took, in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long micros = Math.max(nanos, 0) / 1000;
+        final int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Get the number of samples recorded.
+     * @return Number of samples.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the counts of every bucket.
+     * Index i holds samples between 2^i and 2^(i+1) microseconds.
+     * @return Copy of the bucket counts.
+     */
+    public long[] getBuckets() {
+        final long[] counts = new long[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Get the slowest recorded sample.
+     * @return Maximum latency, in milliseconds.
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Get the average of all samples.
+     * @return Mean latency, in milliseconds.
+     */
+    public double getMeanMillis() {
+        final long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / samples;
+    }
+
+    /**
+     * Get the name of the operation being measured.
+     * @return Name of the histogram.
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get an upper bound for a given percentile.
+     * @param percentile Percentile to get, between 0 and 100.
+     * @return Upper bound of the bucket the percentile falls in, in milliseconds.
+     */
+    public double getPercentileMillis(final double percentile) {
+        final long samples = count.sum();
+        if(samples == 0) {
+            return 0;
+        }
+
+        // Walk the buckets until the requested share of samples is covered.
+        final long target = (long) Math.ceil(samples * (percentile / 100.0));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+
+            if(seen >= target) {
+                return (1L << (i + 1)) / 1000.0;
+            }
+        }
+
+        return getMaxMillis();
+    }
+
+    /**
+     * Clears all recorded samples.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    /**
+     * Summarizes the histogram for logs and dashboards.
+     * @return Summary of the recorded samples.
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d mean=%.2fms p50<=%.2fms p99<=%.2fms max=%.2fms",
+                name, getCount(), getMeanMillis(), getPercentileMillis(50), getPercentileMillis(99), getMaxMillis());
+    }
+}
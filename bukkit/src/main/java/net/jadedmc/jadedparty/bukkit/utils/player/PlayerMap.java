@@ -2,10 +2,24 @@ package net.jadedmc.jadedparty.bukkit.utils.player;
 
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-
-public class PlayerMap<V> extends HashMap<UUID, V> {
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Maps players, by UUID, to an object representing them.
+ * Also keeps an index of lowercase usernames, so lookups by name are a single hash lookup instead of a scan.
+ * Every change goes through the methods below, so the index can never fall out of sync with the map.
+ * Safe to use from multiple threads. Changes are synchronized, and reads never block.
+ * @param <V> Player type being stored, usually a Player or PluginPlayer.
+ */
+public class PlayerMap<V> {
+    private final Map<UUID, V> players = new ConcurrentHashMap<>();
+    private final Map<String, UUID> usernames = new ConcurrentHashMap<>();
+    private final Collection<V> values = Collections.unmodifiableCollection(players.values());
+    private final Set<UUID> keys = Collections.unmodifiableSet(players.keySet());
 
     public void add(@NotNull final Player player) {
         this.put(player.getUniqueId(), (V) player);
@@ -21,53 +35,24 @@ public class PlayerMap<V> extends HashMap<UUID, V> {
      */
     public Collection<Player> asBukkitPlayers() {
         final Collection<Player> bukkitPlayers = new HashSet<>();
-
-        // Loop through all objects.
-        for(final V object : this.values()) {
-            // If it's not a CustomPlayer, skip it.
-            if(!(object instanceof final PluginPlayer pluginPlayer)) {
-                continue;
-            }
-
-            // Gets the Bukkit player being represented.
-            final Player player = pluginPlayer.getBukkitPlayer();
-
-            // Skip them if they are not online.
-            if(player == null || !player.isOnline()) {
-                continue;
-            }
-
-            // Otherwise, add them to the Set.
-            bukkitPlayers.add(player);
-        }
-
+        forEachOnline(bukkitPlayers::add);
         return bukkitPlayers;
     }
 
     public boolean contains(@NotNull final Player player) {
-        return this.containsKey(player.getUniqueId());
+        return this.players.containsKey(player.getUniqueId());
     }
 
     public boolean contains(@NotNull final PluginPlayer pluginPlayer) {
-        return this.containsKey(pluginPlayer.getUniqueId());
+        return this.players.containsKey(pluginPlayer.getUniqueId());
     }
 
     public boolean contains(@NotNull final UUID uuid) {
-        return this.containsKey(uuid);
+        return this.players.containsKey(uuid);
     }
 
     public boolean contains(@NotNull final  String username) {
-        for(final V object : this.values()) {
-            if(!(object instanceof PluginPlayer pluginPlayer)) {
-                continue;
-            }
-
-            if(pluginPlayer.getName().equalsIgnoreCase(username)) {
-                return true;
-            }
-        }
-
-        return false;
+        return this.usernames.containsKey(toKey(username));
     }
 
     public V get(@NotNull final Player player) {
@@ -79,17 +64,84 @@ public class PlayerMap<V> extends HashMap<UUID, V> {
     }
 
     public V get(@NotNull final String playerUsername) {
-        for(final V object : this.values()) {
-            if(!(object instanceof PluginPlayer pluginPlayer)) {
-                continue;
+        final UUID uuid = this.usernames.get(toKey(playerUsername));
+        return uuid == null ? null : get(uuid);
+    }
+
+    /**
+     * Gets the value stored for a UUID.
+     * @param uuid UUID of the player.
+     * @return Stored value, or null if there is none.
+     */
+    @Nullable
+    public V get(@NotNull final UUID uuid) {
+        return this.players.get(uuid);
+    }
+
+    /**
+     * Check if the map is empty.
+     * @return true if no players are stored, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.players.isEmpty();
+    }
+
+    /**
+     * Get the number of stored players.
+     * @return Number of players.
+     */
+    public int size() {
+        return this.players.size();
+    }
+
+    /**
+     * Gets a read-only view of the stored UUIDs.
+     * Safe to iterate while other threads change the map.
+     * @return UUIDs of every stored player.
+     */
+    @NotNull
+    public Set<UUID> keySet() {
+        return this.keys;
+    }
+
+    /**
+     * Gets a read-only view of the stored values.
+     * Safe to iterate while other threads change the map.
+     * @return Every stored value.
+     */
+    @NotNull
+    public Collection<V> values() {
+        return this.values;
+    }
+
+    /**
+     * Runs an action for every online player in the map, without creating a new collection.
+     * @param action Action to run for each Bukkit Player.
+     */
+    public void forEachOnline(@NotNull final Consumer<Player> action) {
+        for(final V object : this.players.values()) {
+            final Player player = getOnlinePlayer(object);
+
+            if(player != null) {
+                action.accept(player);
             }
+        }
+    }
 
-            if(pluginPlayer.getName().equalsIgnoreCase(playerUsername)) {
-                return object;
+    /**
+     * Counts the players in the map that are on this instance.
+     * @return Number of online players.
+     */
+    public int countOnline() {
+        int count = 0;
+
+        for(final V object : this.players.values()) {
+            if(getOnlinePlayer(object) != null) {
+                count++;
             }
         }
 
-        return null;
+        return count;
     }
 
     /**
@@ -100,17 +152,14 @@ public class PlayerMap<V> extends HashMap<UUID, V> {
         final Set<V> onlinePlayers = new HashSet<>();
 
         // Loop through all objects.
-        for(final V object : this.values()) {
+        for(final V object : this.players.values()) {
             // If it's not a CustomPlayer, skip it.
             if(!(object instanceof final PluginPlayer pluginPlayer)) {
                 continue;
             }
 
-            // Gets the Bukkit player being represented.
-            final Player player = pluginPlayer.getBukkitPlayer();
-
             // Skip them if they are not online.
-            if(player == null || !player.isOnline()) {
+            if(!PlayerPresence.isOnline(pluginPlayer.getUniqueId())) {
                 continue;
             }
 
@@ -121,6 +170,53 @@ public class PlayerMap<V> extends HashMap<UUID, V> {
         return onlinePlayers;
     }
 
+    /**
+     * Adds a value to the map, and indexes its username.
+     * @param uuid UUID of the player.
+     * @param value Object representing the player.
+     * @return The previous value for the UUID, or null if there was none.
+     */
+    public synchronized V put(@NotNull final UUID uuid, @NotNull final V value) {
+        final V previous = this.players.put(uuid, value);
+
+        // Drop the old username, in case the player changed it.
+        unindex(uuid, previous);
+
+        final String username = getUsername(value);
+        if(username != null) {
+            this.usernames.put(toKey(username), uuid);
+        }
+
+        return previous;
+    }
+
+    /**
+     * Adds every value of a map to this one, and indexes their usernames.
+     * @param map Map to copy.
+     */
+    public synchronized void putAll(@NotNull final Map<? extends UUID, ? extends V> map) {
+        map.forEach(this::put);
+    }
+
+    /**
+     * Clears the map and its username index.
+     */
+    public synchronized void clear() {
+        this.players.clear();
+        this.usernames.clear();
+    }
+
+    /**
+     * Removes a value from the map, and from the username index.
+     * @param uuid UUID of the player.
+     * @return The removed value, or null if there was none.
+     */
+    public synchronized V remove(@NotNull final UUID uuid) {
+        final V previous = this.players.remove(uuid);
+        unindex(uuid, previous);
+        return previous;
+    }
+
     public void put(@NotNull final Player player) {
         add(player);
     }
@@ -136,4 +232,60 @@ public class PlayerMap<V> extends HashMap<UUID, V> {
     public void remove(@NotNull final PluginPlayer pluginPlayer) {
         this.remove(pluginPlayer.getUniqueId());
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the Bukkit Player of a stored value, if they are online.
+     * @param value Value to get the Player of.
+     * @return Online Bukkit Player, or null if they are offline or the value is not a player.
+     */
+    private static Player getOnlinePlayer(final Object value) {
+        if(value instanceof final PluginPlayer pluginPlayer) {
+            return pluginPlayer.getBukkitPlayer();
+        }
+
+        if(value instanceof final Player player) {
+            return PlayerPresence.getPlayer(player.getUniqueId());
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the username of a stored value.
+     * @param value Value to get the username of.
+     * @return Username, or null if the value is not a player.
+     */
+    private static String getUsername(final Object value) {
+        if(value instanceof final PluginPlayer pluginPlayer) {
+            return pluginPlayer.getName();
+        }
+
+        if(value instanceof final Player player) {
+            return player.getName();
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes a value's username from the index, if it still points to the given UUID.
+     * @param uuid UUID the value was stored under.
+     * @param value Value being removed.
+     */
+    private void unindex(final UUID uuid, final V value) {
+        final String username = getUsername(value);
+
+        if(username != null) {
+            this.usernames.remove(toKey(username), uuid);
+        }
+    }
+
+    /**
+     * Gets the index key of a username.
+     * @param username Username to get the key of.
+     * @return Lowercase username.
+     */
+    private static String toKey(@NotNull final String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
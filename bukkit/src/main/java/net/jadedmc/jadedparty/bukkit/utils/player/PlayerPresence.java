@@ -0,0 +1,110 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.utils.player;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Tracks which players are online on this instance, along with their Bukkit Player objects.
+ * Updated on join and quit, so presence checks and player lookups never have to ask the server or the cache.
+ * Safe to use from async tasks.
+ */
+public final class PlayerPresence {
+    private static final Map<UUID, Player> onlinePlayers = new ConcurrentHashMap<>();
+    private static final Map<String, UUID> usernames = new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private PlayerPresence() {}
+
+    /**
+     * Marks a player as online.
+     * @param player Player who joined.
+     */
+    public static void add(@NotNull final Player player) {
+        onlinePlayers.put(player.getUniqueId(), player);
+        usernames.put(player.getName(), player.getUniqueId());
+    }
+
+    /**
+     * Marks a player as offline.
+     * @param player Player who left.
+     */
+    public static void remove(@NotNull final Player player) {
+        onlinePlayers.remove(player.getUniqueId(), player);
+        usernames.remove(player.getName(), player.getUniqueId());
+    }
+
+    /**
+     * Forgets every tracked player.
+     */
+    public static void clear() {
+        onlinePlayers.clear();
+        usernames.clear();
+    }
+
+    /**
+     * Gets the Bukkit Player of an online player.
+     * @param playerUUID UUID of the player.
+     * @return Their Player object, or null if they are not online.
+     */
+    @Nullable
+    public static Player getPlayer(@NotNull final UUID playerUUID) {
+        return onlinePlayers.get(playerUUID);
+    }
+
+    /**
+     * Gets the UUID of an online player from their username, ignoring case.
+     * @param username Username of the player.
+     * @return Their UUID, or null if they are not online.
+     */
+    @Nullable
+    public static UUID getUniqueId(@NotNull final String username) {
+        return usernames.get(username);
+    }
+
+    /**
+     * Check if a player is online on this instance.
+     * @param playerUUID UUID of the player.
+     * @return true if they are online, false if not.
+     */
+    public static boolean isOnline(@NotNull final UUID playerUUID) {
+        return onlinePlayers.containsKey(playerUUID);
+    }
+
+    /**
+     * Check if a player is online on this instance, ignoring case.
+     * @param username Username of the player.
+     * @return true if they are online, false if not.
+     */
+    public static boolean isOnline(@NotNull final String username) {
+        return usernames.containsKey(username);
+    }
+}
@@ -73,11 +73,12 @@ public abstract class PluginPlayer {
     /**
      * Gets the Bukkit Player object being represented.
      * Returns null if offline.
+     * Uses the handle kept by {@link PlayerPresence}, so the server's player list is not searched.
      * @return Bukkit Player object.
      */
     @Nullable
     public Player getBukkitPlayer() {
-        return Bukkit.getPlayer(this.playerUUID);
+        return PlayerPresence.getPlayer(this.playerUUID);
     }
 
     /**
@@ -103,9 +104,7 @@ public abstract class PluginPlayer {
      * @return True if they are online, false if they are not.
      */
     public boolean isOnline() {
-        final Player player = this.getBukkitPlayer();
-
-        return player != null && player.isOnline();
+        return PlayerPresence.isOnline(this.playerUUID);
     }
 
     /**
@@ -0,0 +1,203 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.cache.types;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Stress tests MemoryCache with many threads reading, writing and copying it at once.
+ */
+class MemoryCacheTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 2_000;
+
+    private ExecutorService executor;
+    private MemoryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newFixedThreadPool(THREADS + 1);
+        this.cache = new MemoryCache(mock(JadedPartyBukkit.class));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        this.executor.shutdownNow();
+        assertTrue(this.executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Every thread writes its own parties and players while another thread keeps copying the whole cache.
+     * Each write must be readable right away, and no copy may fail or contain missing entries.
+     */
+    @Test
+    void concurrentWritesReadsAndSnapshots() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final List<Future<?>> writers = new ArrayList<>();
+
+        for(int thread = 0; thread < THREADS; thread++) {
+            final int id = thread;
+            writers.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+
+                for(int i = 0; i < ITERATIONS; i++) {
+                    final String nanoID = id + "-" + i;
+                    final PartyPlayerSnapshot player = new PartyPlayerSnapshot(UUID.randomUUID(), "player" + nanoID, PartyRole.LEADER, "", nanoID);
+                    final PartySnapshot party = new PartySnapshot(nanoID, List.of(player), List.of());
+
+                    cache.setPartyPlayer(player);
+                    cache.setParty(party);
+
+                    assertSame(player, cache.getPartyPlayer(player.uniqueId().toString()));
+                    assertSame(party, cache.getParty(nanoID));
+
+                    // Rewrite every other party, so entries are replaced while they are being copied.
+                    if(i % 2 == 0) {
+                        final PartySnapshot updated = new PartySnapshot(nanoID, List.of(player), List.of(UUID.randomUUID()));
+                        cache.setParty(updated);
+                        assertSame(updated, cache.getParty(nanoID));
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        final Future<Integer> reader = executor.submit(() -> {
+            start.await();
+            int snapshots = 0;
+
+            while(writing.get()) {
+                for(final PartySnapshot party : cache.getAllParties()) {
+                    assertNotNull(party);
+                }
+
+                for(final PartyPlayerSnapshot player : cache.getAllPartyPlayers()) {
+                    assertNotNull(player);
+                }
+
+                for(final Document document : cache.getAllPartyDocuments()) {
+                    assertNotNull(document.getString("nanoID"));
+                }
+
+                snapshots++;
+            }
+
+            return snapshots;
+        });
+
+        start.countDown();
+        for(final Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+
+        writing.set(false);
+        assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+
+        assertEquals(THREADS * ITERATIONS, cache.getAllParties().size());
+        assertEquals(THREADS * ITERATIONS, cache.getAllPartyPlayers().size());
+    }
+
+    /**
+     * Every thread tries to reserve the same ids, and each id must only be given out once.
+     * Deleting the party must free its id again.
+     */
+    @Test
+    void reservePartyIDIsExclusive() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger[] reservations = new AtomicInteger[ITERATIONS];
+        for(int i = 0; i < ITERATIONS; i++) {
+            reservations[i] = new AtomicInteger();
+        }
+
+        final List<Future<?>> threads = new ArrayList<>();
+        for(int thread = 0; thread < THREADS; thread++) {
+            threads.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+
+                for(int i = 0; i < ITERATIONS; i++) {
+                    if(cache.reservePartyID("id-" + i)) {
+                        reservations[i].incrementAndGet();
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for(final Future<?> thread : threads) {
+            thread.get(60, TimeUnit.SECONDS);
+        }
+
+        for(int i = 0; i < ITERATIONS; i++) {
+            assertEquals(1, reservations[i].get(), "id-" + i + " was reserved " + reservations[i].get() + " times");
+        }
+
+        cache.deletePartyDocument("id-0");
+        assertTrue(cache.reservePartyID("id-0"));
+    }
+
+    /**
+     * Saving a party keeps its id taken, even though the reservation itself is released.
+     */
+    @Test
+    void savedPartyKeepsItsID() {
+        assertTrue(cache.reservePartyID("saved"));
+        cache.setParty(new PartySnapshot("saved", List.of(), List.of()));
+
+        assertFalse(cache.reservePartyID("saved"));
+
+        cache.deletePartyDocument("saved");
+        assertTrue(cache.reservePartyID("saved"));
+    }
+}
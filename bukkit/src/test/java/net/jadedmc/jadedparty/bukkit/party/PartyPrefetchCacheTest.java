@@ -0,0 +1,213 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import net.jadedmc.jadedparty.bukkit.utils.Tuple;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress tests PartyPrefetchCache with players joining while their parties change.
+ */
+class PartyPrefetchCacheTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 5_000;
+    private static final int PARTIES = 16;
+
+    private ExecutorService executor;
+    private PartyPrefetchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        this.executor = Executors.newFixedThreadPool(THREADS + 2);
+        this.cache = new PartyPrefetchCache(TimeUnit.MINUTES.toNanos(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        this.executor.shutdownNow();
+        assertTrue(this.executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Without invalidation, every thread must get back exactly what it stored, even while other threads purge the cache.
+     */
+    @Test
+    void concurrentPutAndConsume() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final List<Future<?>> threads = new ArrayList<>();
+
+        for(int thread = 0; thread < THREADS; thread++) {
+            threads.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+
+                for(int i = 0; i < ITERATIONS; i++) {
+                    final Tuple<PartyPlayerSnapshot, PartySnapshot> data = createData(UUID.randomUUID(), "party-" + (i % PARTIES));
+                    final UUID playerUUID = data.getLeft().uniqueId();
+
+                    cache.put(playerUUID, data);
+                    assertTrue(cache.contains(playerUUID));
+                    assertSame(data, cache.consume(playerUUID));
+                    assertNull(cache.consume(playerUUID));
+                }
+
+                return null;
+            }));
+        }
+
+        final Future<?> purger = executor.submit((Callable<Void>) () -> {
+            start.await();
+
+            while(running.get()) {
+                cache.purgeExpired();
+            }
+
+            return null;
+        });
+
+        start.countDown();
+        for(final Future<?> thread : threads) {
+            thread.get(60, TimeUnit.SECONDS);
+        }
+
+        running.set(false);
+        purger.get(60, TimeUnit.SECONDS);
+
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Parties are invalidated while players are stored and consumed.
+     * A player must never get someone else's data, and once every party is invalidated nothing may be left behind.
+     */
+    @Test
+    void concurrentInvalidation() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final List<Future<?>> threads = new ArrayList<>();
+
+        for(int thread = 0; thread < THREADS; thread++) {
+            threads.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for(int i = 0; i < ITERATIONS; i++) {
+                    final Tuple<PartyPlayerSnapshot, PartySnapshot> data = createData(UUID.randomUUID(), "party-" + random.nextInt(PARTIES));
+                    final UUID playerUUID = data.getLeft().uniqueId();
+                    cache.put(playerUUID, data);
+
+                    // Leave some entries behind, so invalidation has something to remove.
+                    if(random.nextBoolean()) {
+                        final Tuple<PartyPlayerSnapshot, PartySnapshot> consumed = cache.consume(playerUUID);
+                        assertTrue(consumed == null || consumed == data);
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        final Future<?> invalidator = executor.submit((Callable<Void>) () -> {
+            start.await();
+
+            while(running.get()) {
+                cache.invalidateParty("party-" + ThreadLocalRandom.current().nextInt(PARTIES));
+            }
+
+            return null;
+        });
+
+        start.countDown();
+        for(final Future<?> thread : threads) {
+            thread.get(60, TimeUnit.SECONDS);
+        }
+
+        running.set(false);
+        invalidator.get(60, TimeUnit.SECONDS);
+
+        for(int party = 0; party < PARTIES; party++) {
+            cache.invalidateParty("party-" + party);
+        }
+
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Data read before its party or player was invalidated must not be stored.
+     */
+    @Test
+    void outdatedDataIsNotStored() {
+        final UUID playerUUID = UUID.randomUUID();
+        final Tuple<PartyPlayerSnapshot, PartySnapshot> data = createData(playerUUID, "party-0");
+
+        final long beforePartyChange = System.nanoTime();
+        cache.invalidateParty("party-0");
+        assertFalse(cache.put(playerUUID, data, beforePartyChange));
+        assertNull(cache.consume(playerUUID));
+
+        final long beforePlayerChange = System.nanoTime();
+        cache.invalidate(playerUUID);
+        assertFalse(cache.put(playerUUID, data, beforePlayerChange));
+        assertNull(cache.consume(playerUUID));
+
+        // Data read after both changes is fine.
+        assertTrue(cache.put(playerUUID, data, System.nanoTime()));
+        assertSame(data, cache.consume(playerUUID));
+    }
+
+    /**
+     * Creates prefetched data for a player in a party.
+     * @param playerUUID UUID of the player.
+     * @param nanoID NanoID of the party.
+     * @return Tuple of the player's snapshot and their party's snapshot.
+     */
+    private static Tuple<PartyPlayerSnapshot, PartySnapshot> createData(final UUID playerUUID, final String nanoID) {
+        final PartyPlayerSnapshot player = new PartyPlayerSnapshot(playerUUID, "player", PartyRole.MEMBER, "", nanoID);
+        return new Tuple<>(player, new PartySnapshot(nanoID, List.of(player), List.of()));
+    }
+}
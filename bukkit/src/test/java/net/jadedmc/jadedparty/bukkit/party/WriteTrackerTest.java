@@ -0,0 +1,61 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.bukkit.party;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests WriteTracker with writes finishing out of order.
+ */
+class WriteTrackerTest {
+
+    @Test
+    void newerWriteDoesNotHideOlderOne() {
+        final WriteTracker writes = new WriteTracker();
+        final long older = writes.queue();
+        final long newer = writes.queue();
+
+        // The newer write finishing first leaves the older one pending.
+        writes.saved(newer);
+        assertTrue(writes.isPending());
+
+        writes.saved(older);
+        assertFalse(writes.isPending());
+    }
+
+    @Test
+    void unsavedWriteStaysPending() {
+        final WriteTracker writes = new WriteTracker();
+        writes.queue();
+        final long second = writes.queue();
+        writes.saved(second);
+
+        // The first write never finished, so it still needs flushing.
+        assertTrue(writes.isPending());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.common.cache;
+
+/**
+ * The keys and channels used to store and share party data in Redis.
+ * Shared by every platform, so servers and proxies always read and write the same keys.
+ */
+public final class CacheKeys {
+    /**
+     * Prefix of the keys that store party documents.
+     */
+    public static final String PARTIES = "jadedparty:parties:";
+
+    /**
+     * Prefix of the keys that store player documents.
+     */
+    public static final String PLAYERS = "jadedparty:players:";
+
+    /**
+     * Prefix of the keys that reserve party NanoIDs.
+     */
+    public static final String IDS = "jadedparty:ids:";
+
+    /**
+     * How long a party id stays reserved, in seconds. Only needs to cover the time until the party is first saved.
+     */
+    public static final long ID_RESERVATION_SECONDS = 300;
+
+    /**
+     * Key every proxy running JadedParty keeps alive while it delivers messages and moves players between servers.
+     * Backend servers leave both to the proxy while the key exists. During a handover both sides may deliver for a
+     * moment, so a player can get something twice, but never miss it.
+     */
+    public static final String PROXY = "jadedparty:proxy";
+
+    /**
+     * Sub channel of {@link #PLUGIN_CHANNEL} proxies announce starting or stopping on, with "online" or "offline",
+     * so backend servers don't have to wait for their next check of the proxy key.
+     */
+    public static final String PROXY_STATUS = "proxy";
+
+    /**
+     * How often proxies refresh the proxy key, and backend servers check it, in seconds.
+     */
+    public static final int PROXY_HEARTBEAT_SECONDS = 5;
+
+    /**
+     * How long the proxy key lasts without being refreshed, in seconds.
+     */
+    public static final int PROXY_EXPIRE_SECONDS = 15;
+
+    /**
+     * Channel used to announce changes to parties.
+     */
+    public static final String PARTY_CHANNEL = "party";
+
+    /**
+     * Channel used for cross-server messages that are not tied to a party, like chat messages and server switches.
+     */
+    public static final String PLUGIN_CHANNEL = "jadedparty";
+
+    private CacheKeys() {}
+}
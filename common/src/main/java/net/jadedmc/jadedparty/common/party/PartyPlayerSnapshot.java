@@ -0,0 +1,72 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.common.party;
+
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Immutable copy of a PartyPlayer's state.
+ * Stored directly by the in-memory cache, and converted to/from a Bson Document for remote caches.
+ * @param uniqueId UUID of the player.
+ * @param username Username of the player.
+ * @param role Role the player has in their party.
+ * @param prefix Prefix the player is displayed with.
+ * @param party NanoID of the player's party, or null if they are not in one.
+ */
+public record PartyPlayerSnapshot(@NotNull UUID uniqueId, @NotNull String username, @NotNull PartyRole role, String prefix, @Nullable String party) {
+
+    /**
+     * Reads a player snapshot from a Bson Document.
+     * @param document Bson document of the player.
+     * @return Corresponding snapshot.
+     */
+    @NotNull
+    public static PartyPlayerSnapshot fromDocument(@NotNull final Document document) {
+        return new PartyPlayerSnapshot(
+                UUID.fromString(document.getString("uuid")),
+                document.getString("username"),
+                PartyRole.valueOf(document.getString("role")),
+                document.getString("prefix"),
+                document.getString("party"));
+    }
+
+    /**
+     * Converts the snapshot into a Bson Document.
+     * @return Bson document of the player.
+     */
+    @NotNull
+    public Document toDocument() {
+        return new Document()
+                .append("uuid", uniqueId.toString())
+                .append("username", username)
+                .append("role", role.toString())
+                .append("prefix", prefix)
+                .append("party", party);
+    }
+}
@@ -22,7 +22,7 @@
  *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  *  SOFTWARE.
  */
-package net.jadedmc.jadedparty.bukkit.party;
+package net.jadedmc.jadedparty.common.party;
 
 /**
  * Represents the role of someone in a party.
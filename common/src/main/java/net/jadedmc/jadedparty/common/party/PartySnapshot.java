@@ -0,0 +1,100 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.common.party;
+
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a Party's state.
+ * Stored directly by the in-memory cache, and converted to/from a Bson Document for remote caches.
+ * Every platform reads and writes party documents through this class, so they always agree on the format.
+ * @param nanoID NanoID of the party, as a String.
+ * @param players Members of the party.
+ * @param invites UUIDs of players with pending invites.
+ */
+public record PartySnapshot(@NotNull String nanoID, @NotNull List<PartyPlayerSnapshot> players, @NotNull List<UUID> invites) {
+
+    /**
+     * Creates the snapshot, copying the given lists so it can't be modified later.
+     * @param nanoID NanoID of the party, as a String.
+     * @param players Members of the party.
+     * @param invites UUIDs of players with pending invites.
+     */
+    public PartySnapshot {
+        players = List.copyOf(players);
+        invites = List.copyOf(invites);
+    }
+
+    /**
+     * Reads a party snapshot from a Bson Document.
+     * @param document Bson document of the party.
+     * @return Corresponding snapshot.
+     */
+    @NotNull
+    public static PartySnapshot fromDocument(@NotNull final Document document) {
+        // Load the players from the document.
+        final Document playersDocument = document.get("players", Document.class);
+        final List<PartyPlayerSnapshot> players = new ArrayList<>(playersDocument.size());
+        for(final String player : playersDocument.keySet()) {
+            players.add(PartyPlayerSnapshot.fromDocument(playersDocument.get(player, Document.class)));
+        }
+
+        // Load the pending invites of the party. Older documents may not have any.
+        final List<String> inviteUUIDs = document.getList("invites", String.class, List.of());
+        final List<UUID> invites = new ArrayList<>(inviteUUIDs.size());
+        for(final String uuid : inviteUUIDs) {
+            invites.add(UUID.fromString(uuid));
+        }
+
+        return new PartySnapshot(document.getString("nanoID"), players, invites);
+    }
+
+    /**
+     * Converts the snapshot into a Bson Document.
+     * @return Bson document of the party.
+     */
+    @NotNull
+    public Document toDocument() {
+        final Document playersDocument = new Document();
+        for(final PartyPlayerSnapshot player : players) {
+            playersDocument.append(player.uniqueId().toString(), player.toDocument());
+        }
+
+        final List<String> inviteUUIDs = new ArrayList<>(invites.size());
+        for(final UUID invite : invites) {
+            inviteUUIDs.add(invite.toString());
+        }
+
+        return new Document()
+                .append("nanoID", nanoID)
+                .append("players", playersDocument)
+                .append("invites", inviteUUIDs);
+    }
+}
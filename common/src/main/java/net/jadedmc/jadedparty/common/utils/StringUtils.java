@@ -22,7 +22,7 @@
  *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  *  SOFTWARE.
  */
-package net.jadedmc.jadedparty.bukkit.utils;
+package net.jadedmc.jadedparty.common.utils;
 
 import java.util.Arrays;
 import java.util.List;
@@ -0,0 +1,364 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import net.jadedmc.jadedparty.bukkit.cache.Cache;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.jetbrains.annotations.NotNull;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulates several Bukkit servers sharing parties through one Redis server, and reports how well they keep up.
+ * Each server runs the plugin's real cache, message processor and commands, while synthetic players repeatedly create,
+ * join, promote in and leave parties spread across the servers.
+ * Reports command throughput and latency, how long changes take to reach every server, and how long the servers take
+ * to agree with Redis once the load stops.
+ * Exits with status 1 if the servers never agreed, so it can be used to catch regressions.
+ */
+public class LoadTest {
+    private final LoadTestOptions options;
+    private final LoadTestMetrics metrics = new LoadTestMetrics();
+    private final List<SimulatedNode> nodes = new ArrayList<>();
+
+    /**
+     * Creates the load test.
+     * @param options Options of the run.
+     */
+    public LoadTest(@NotNull final LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(final String[] args) {
+        final LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        }
+        catch (IllegalArgumentException exception) {
+            System.err.println(exception.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        if(options == null) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+
+        System.exit(new LoadTest(options).run() ? 0 : 1);
+    }
+
+    /**
+     * Starts Redis and the servers, generates load, and prints the results.
+     * @return true if every server agreed with Redis once the load stopped, false if not.
+     */
+    public boolean run() {
+        RedisServer embeddedRedis = null;
+        final String host;
+        final int port;
+
+        try {
+            // Use an external Redis server if one was given, otherwise start one on a free port.
+            if(options.redisHost() != null) {
+                host = options.redisHost();
+                port = options.redisPort();
+
+                if(options.flush()) {
+                    System.out.println("Deleted " + flush(host, port) + " existing keys.");
+                }
+            }
+            else {
+                host = "127.0.0.1";
+                port = findFreePort();
+                embeddedRedis = new RedisServer(port);
+                embeddedRedis.start();
+            }
+
+            System.out.printf("JadedParty load test: %d nodes, %d players, parties of %d, %d threads, %s, %ds, Redis at %s:%d%s%n",
+                    options.nodes(), options.players(), options.partySize(), options.threads(),
+                    options.rate() == 0 ? "no rate limit" : options.rate() + " commands/s", options.duration().toSeconds(),
+                    host, port, embeddedRedis == null ? "" : " (embedded)");
+
+            // Start the servers, and wait until they all listen for party updates.
+            for(int i = 0; i < options.nodes(); i++) {
+                nodes.add(new SimulatedNode(i, host, port, metrics.getJoinLatency()));
+            }
+
+            LoadTestServer.initializeChat(nodes.get(0).getPlugin());
+            awaitSubscribers(host, port);
+
+            return generateLoad();
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        finally {
+            nodes.forEach(SimulatedNode::shutdown);
+
+            if(embeddedRedis != null) {
+                try {
+                    embeddedRedis.stop();
+                }
+                catch (IOException exception) {
+                    System.err.println("Could not stop the embedded Redis server: " + exception.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Joins the players, runs party lifecycles until the duration is over, and prints the results.
+     * @return true if every server agreed with Redis once the load stopped, false if not.
+     */
+    private boolean generateLoad() {
+        final AtomicInteger workerThreads = new AtomicInteger();
+        final ExecutorService workers = Executors.newFixedThreadPool(options.threads(), runnable -> new Thread(runnable, "Load Test Worker " + workerThreads.incrementAndGet()));
+
+        try {
+            final List<SimulatedPlayer> players = joinPlayers(workers);
+
+            // Consecutive players are on different servers, so every party spans as many servers as possible.
+            final BlockingQueue<List<SimulatedPlayer>> groups = new LinkedBlockingQueue<>();
+            for(int i = 0; i + options.partySize() <= players.size(); i += options.partySize()) {
+                groups.add(players.subList(i, i + options.partySize()));
+            }
+
+            // Each worker takes a free group, runs it through a party lifecycle, and hands it back.
+            final PartyLifecycle lifecycle = new PartyLifecycle(options, metrics);
+            final long start = System.nanoTime();
+            final long deadline = start + options.duration().toNanos();
+
+            for(int i = 0; i < options.threads(); i++) {
+                workers.execute(() -> {
+                    while(System.nanoTime() < deadline) {
+                        final List<SimulatedPlayer> group;
+                        try {
+                            group = groups.poll(100, TimeUnit.MILLISECONDS);
+                        }
+                        catch (InterruptedException exception) {
+                            return;
+                        }
+
+                        if(group == null) {
+                            continue;
+                        }
+
+                        try {
+                            lifecycle.run(group);
+                        }
+                        finally {
+                            groups.add(group);
+                        }
+                    }
+                });
+            }
+
+            workers.shutdown();
+            workers.awaitTermination(options.duration().toMillis() + options.syncTimeout().toMillis() * 20, TimeUnit.MILLISECONDS);
+            final double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            // Measure how long the servers take to agree with Redis.
+            final long convergenceStart = System.nanoTime();
+            final long convergenceDeadline = convergenceStart + options.convergenceTimeout().toNanos();
+            int diverged;
+            while((diverged = countDivergedParties()) > 0 && System.nanoTime() < convergenceDeadline) {
+                Thread.sleep(10);
+            }
+            final long convergenceMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - convergenceStart);
+
+            // Print the results.
+            metrics.print(System.out, seconds);
+
+            long errors = 0;
+            for(final SimulatedNode node : nodes) {
+                errors += node.getErrors();
+            }
+            System.out.println("Task errors: " + errors);
+
+            if(diverged == 0) {
+                System.out.println("Converged in " + convergenceMillis + "ms.");
+                return true;
+            }
+
+            System.out.println("Did not converge after " + convergenceMillis + "ms: " + diverged + " cached parties differ from Redis.");
+            return false;
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates the players, spread evenly over the servers, and joins them.
+     * @param workers Threads to join the players on.
+     * @return Joined players.
+     */
+    @NotNull
+    private List<SimulatedPlayer> joinPlayers(@NotNull final ExecutorService workers) {
+        final List<SimulatedPlayer> players = new ArrayList<>(options.players());
+        for(int i = 0; i < options.players(); i++) {
+            final SimulatedNode node = nodes.get(i % nodes.size());
+            players.add(new SimulatedPlayer(LoadTestServer.createPlayer(UUID.randomUUID(), "Player" + i), node));
+        }
+
+        final AtomicInteger failed = new AtomicInteger();
+        final List<CompletableFuture<Void>> joins = new ArrayList<>(players.size());
+        for(final SimulatedPlayer player : players) {
+            joins.add(CompletableFuture.runAsync(() -> {
+                if(!player.node().join(player.player(), options.syncTimeout())) {
+                    failed.incrementAndGet();
+                }
+            }, workers));
+        }
+
+        CompletableFuture.allOf(joins.toArray(new CompletableFuture[0])).join();
+
+        if(failed.get() > 0) {
+            System.out.println(failed.get() + " players did not finish joining in time.");
+        }
+
+        return players;
+    }
+
+    /**
+     * Counts the parties cached on a server that do not match Redis, or no longer exist in it.
+     * @return Number of out of date cached parties.
+     */
+    private int countDivergedParties() {
+        final Cache cache = nodes.get(0).getPlugin().getConfigManager().getCache();
+        int diverged = 0;
+
+        for(final SimulatedNode node : nodes) {
+            final Map<String, Set<UUID>> localParties;
+            try {
+                localParties = node.getLocalParties();
+            }
+            catch (CompletionException exception) {
+                // A party was being changed while it was read, so the node is still catching up.
+                diverged++;
+                continue;
+            }
+
+            for(final Map.Entry<String, Set<UUID>> entry : localParties.entrySet()) {
+                final PartySnapshot snapshot = cache.getParty(entry.getKey());
+
+                if(snapshot == null || !entry.getValue().equals(PartyLifecycle.getMembers(snapshot))) {
+                    diverged++;
+                }
+            }
+        }
+
+        return diverged;
+    }
+
+    /**
+     * Waits until every server is subscribed to the party channel, so no update is missed.
+     * @param host Host of the Redis server.
+     * @param port Port of the Redis server.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private void awaitSubscribers(@NotNull final String host, final int port) throws InterruptedException {
+        try(Jedis jedis = new Jedis(host, port)) {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            while(jedis.pubsubNumSub(CacheKeys.PARTY_CHANNEL).getOrDefault(CacheKeys.PARTY_CHANNEL, 0L) < nodes.size()) {
+                if(System.nanoTime() >= deadline) {
+                    throw new IllegalStateException("Not every server subscribed to Redis in time.");
+                }
+
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    /**
+     * Deletes every party, player and reserved NanoID from a Redis server.
+     * @param host Host of the Redis server.
+     * @param port Port of the Redis server.
+     * @return Number of keys deleted.
+     */
+    private static long flush(@NotNull final String host, final int port) {
+        long deleted = 0;
+
+        try(Jedis jedis = new Jedis(host, port)) {
+            for(final String prefix : new String[]{CacheKeys.PARTIES, CacheKeys.PLAYERS, CacheKeys.IDS}) {
+                final ScanParams params = new ScanParams().match(prefix + "*").count(1000);
+                String cursor = ScanParams.SCAN_POINTER_START;
+
+                do {
+                    final ScanResult<String> result = jedis.scan(cursor, params);
+                    if(!result.getResult().isEmpty()) {
+                        deleted += jedis.del(result.getResult().toArray(new String[0]));
+                    }
+
+                    cursor = result.getCursor();
+                }
+                while(!cursor.equals(ScanParams.SCAN_POINTER_START));
+            }
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Finds a port nothing is listening on.
+     * @return Free port.
+     * @throws IOException If no port could be opened.
+     */
+    private static int findFreePort() throws IOException {
+        try(ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import net.jadedmc.jadedparty.bukkit.utils.metrics.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the results of a load test run.
+ */
+public class LoadTestMetrics {
+    private final Map<String, LatencyHistogram> commands;
+    private final LatencyHistogram sync = new LatencyHistogram("sync");
+    private final LatencyHistogram join = new LatencyHistogram("join");
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final LongAdder lifecycles = new LongAdder();
+
+    /**
+     * Creates the metrics, with a histogram for every command the load test runs.
+     */
+    public LoadTestMetrics() {
+        final Map<String, LatencyHistogram> commands = new LinkedHashMap<>();
+        for(final String command : new String[]{"create", "invite", "accept", "promote", "leave"}) {
+            commands.put(command, new LatencyHistogram(command));
+        }
+
+        this.commands = Collections.unmodifiableMap(commands);
+    }
+
+    /**
+     * Records how long a command took.
+     * @param command Sub command that was run.
+     * @param nanos Time from running the command until all of its async tasks finished, in nanoseconds.
+     */
+    public void recordCommand(@NotNull final String command, final long nanos) {
+        commands.get(command).record(nanos);
+    }
+
+    /**
+     * Records how long a party took to look the same on Redis and every server after a command.
+     * @param nanos Time after the command finished, in nanoseconds.
+     */
+    public void recordSync(final long nanos) {
+        sync.record(nanos);
+    }
+
+    /**
+     * Records a party lifecycle that failed part way through.
+     * @param step Step that failed.
+     * @param reason Why it failed.
+     */
+    public void recordFailure(@NotNull final String step, @NotNull final String reason) {
+        failures.computeIfAbsent(step + " " + reason, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a party that went through its whole lifecycle.
+     */
+    public void recordLifecycle() {
+        lifecycles.increment();
+    }
+
+    /**
+     * Gets the histogram the nodes record join times in.
+     * @return Join latency histogram.
+     */
+    @NotNull
+    public LatencyHistogram getJoinLatency() {
+        return join;
+    }
+
+    /**
+     * Gets the total number of commands that were run.
+     * @return Number of commands.
+     */
+    public long getCommandCount() {
+        long count = 0;
+        for(final LatencyHistogram histogram : commands.values()) {
+            count += histogram.getCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the total number of failed steps.
+     * @return Number of failures.
+     */
+    public long getFailureCount() {
+        long count = 0;
+        for(final LongAdder adder : failures.values()) {
+            count += adder.sum();
+        }
+
+        return count;
+    }
+
+    /**
+     * Prints the throughput, latencies and failures.
+     * @param out Stream to print to.
+     * @param seconds How long the load was generated for, in seconds.
+     */
+    public void print(@NotNull final PrintStream out, final double seconds) {
+        final long commandCount = getCommandCount();
+        final long lifecycleCount = lifecycles.sum();
+
+        out.printf("Commands: %d in %.1fs (%.1f/s), %d party lifecycles (%.1f/s), %d failed%n",
+                commandCount, seconds, commandCount / seconds, lifecycleCount, lifecycleCount / seconds, getFailureCount());
+
+        for(final LatencyHistogram histogram : commands.values()) {
+            out.println("  " + histogram);
+        }
+
+        out.println("  " + sync);
+        out.println("  " + join);
+
+        if(!failures.isEmpty()) {
+            out.println("Failed steps:");
+            new TreeMap<>(failures).forEach((failure, count) -> out.println("  " + failure + ": " + count.sum()));
+        }
+    }
+}
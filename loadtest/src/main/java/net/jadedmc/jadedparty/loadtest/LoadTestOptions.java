@@ -0,0 +1,145 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Settings for a load test run, read from the command line.
+ * @param nodes Number of simulated Bukkit servers.
+ * @param players Number of simulated players, spread evenly across the servers.
+ * @param partySize Number of players in each party, including the leader.
+ * @param threads Number of parties running their lifecycle at the same time.
+ * @param rate Maximum number of commands per second across all servers, or 0 for no limit.
+ * @param duration How long to generate load for.
+ * @param syncTimeout How long a party may take to look the same on every server before the step counts as failed.
+ * @param convergenceTimeout How long to wait for every server to agree with Redis once the load stops.
+ * @param redisHost Host of an external Redis server, or null to start an embedded one.
+ * @param redisPort Port of the external Redis server.
+ * @param flush Whether to delete existing party data from the external Redis server before starting.
+ */
+public record LoadTestOptions(int nodes, int players, int partySize, int threads, double rate, @NotNull Duration duration,
+                              @NotNull Duration syncTimeout, @NotNull Duration convergenceTimeout,
+                              @Nullable String redisHost, int redisPort, boolean flush) {
+
+    /**
+     * Describes the available options.
+     */
+    public static final String USAGE = """
+            Usage: java -jar loadtest.jar [options]
+              --nodes <n>              Simulated Bukkit servers. (default: 3)
+              --players <n>            Simulated players, spread across the servers. (default: 120)
+              --party-size <n>         Players per party, including the leader. (default: 4)
+              --threads <n>            Parties running their lifecycle at the same time. (default: 16)
+              --rate <ops/s>           Maximum commands per second across all servers, 0 for no limit. (default: 0)
+              --duration <seconds>     How long to generate load for. (default: 30)
+              --sync-timeout <ms>      How long a party may take to agree across servers before a step fails. (default: 2000)
+              --converge-timeout <ms>  How long to wait for the servers to agree once the load stops. (default: 10000)
+              --redis <host:port>      Use an external Redis server instead of starting an embedded one.
+              --flush                  Delete existing party data from the external Redis server first.
+              --help                   Show this message.
+            """;
+
+    /**
+     * Reads the options from command line arguments.
+     * @param args Command line arguments.
+     * @return Parsed options, or null if the usage should be shown instead.
+     * @throws IllegalArgumentException If an option is unknown, or its value is invalid.
+     */
+    @Nullable
+    public static LoadTestOptions parse(@NotNull final String[] args) {
+        int nodes = 3;
+        int players = 120;
+        int partySize = 4;
+        int threads = 16;
+        double rate = 0;
+        long duration = 30;
+        long syncTimeout = 2000;
+        long convergenceTimeout = 10000;
+        String redisHost = null;
+        int redisPort = 6379;
+        boolean flush = false;
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "--nodes" -> nodes = Integer.parseInt(value(args, ++i));
+                case "--players" -> players = Integer.parseInt(value(args, ++i));
+                case "--party-size" -> partySize = Integer.parseInt(value(args, ++i));
+                case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                case "--rate" -> rate = Double.parseDouble(value(args, ++i));
+                case "--duration" -> duration = Long.parseLong(value(args, ++i));
+                case "--sync-timeout" -> syncTimeout = Long.parseLong(value(args, ++i));
+                case "--converge-timeout" -> convergenceTimeout = Long.parseLong(value(args, ++i));
+                case "--redis" -> {
+                    final String address = value(args, ++i);
+                    final int separator = address.lastIndexOf(':');
+
+                    if(separator == -1) {
+                        redisHost = address;
+                    }
+                    else {
+                        redisHost = address.substring(0, separator);
+                        redisPort = Integer.parseInt(address.substring(separator + 1));
+                    }
+                }
+                case "--flush" -> flush = true;
+                case "--help", "-h" -> {
+                    return null;
+                }
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        // Makes sure the values can produce a working run.
+        if(nodes < 1 || threads < 1 || rate < 0 || duration < 1) {
+            throw new IllegalArgumentException("--nodes, --threads and --duration must be positive, and --rate cannot be negative.");
+        }
+
+        if(partySize < 2 || players < partySize) {
+            throw new IllegalArgumentException("--party-size must be at least 2, and --players must be at least the party size.");
+        }
+
+        return new LoadTestOptions(nodes, players, partySize, threads, rate, Duration.ofSeconds(duration),
+                Duration.ofMillis(syncTimeout), Duration.ofMillis(convergenceTimeout), redisHost, redisPort, flush);
+    }
+
+    /**
+     * Gets the value following an option.
+     * @param args Command line arguments.
+     * @param index Index of the value.
+     * @return Value of the option.
+     */
+    @NotNull
+    private static String value(@NotNull final String[] args, final int index) {
+        if(index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+
+        return args[index];
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.utils.JadedUtils;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.platform.bukkit.BukkitAudiences;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.mockito.MockedStatic;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The stand-in Bukkit server shared by every simulated node.
+ * Bukkit only allows one server per JVM, so the scheduler looks up the node that owns each task from the plugin
+ * instance it was scheduled with, and runs it on that node's threads.
+ * Stubs are created without recording invocations, since they are called millions of times during a run.
+ */
+public final class LoadTestServer {
+    private static final Map<Plugin, SimulatedNode> nodes = new ConcurrentHashMap<>();
+    private static Server server;
+
+    private LoadTestServer() {}
+
+    /**
+     * Gets the shared stub server, creating it the first time it is used.
+     * @return Stub server.
+     */
+    @NotNull
+    public static synchronized Server getServer() {
+        if(server == null) {
+            server = createServer();
+        }
+
+        return server;
+    }
+
+    /**
+     * Registers a node, so tasks scheduled by its plugin run on its threads.
+     * @param plugin Plugin instance of the node.
+     * @param node Node that owns the plugin.
+     */
+    public static void register(@NotNull final Plugin plugin, @NotNull final SimulatedNode node) {
+        nodes.put(plugin, node);
+    }
+
+    /**
+     * Sets up the plugin's static chat utilities.
+     * They are shared by every node, so cross-server chat is published through the first node's cache.
+     * Chat sent to players is discarded.
+     * @param plugin Plugin instance of the first node.
+     */
+    public static void initializeChat(@NotNull final JadedPartyBukkit plugin) {
+        final Audience audience = mock(Audience.class, withSettings().stubOnly());
+        final BukkitAudiences audiences = mock(BukkitAudiences.class, withSettings().stubOnly());
+        when(audiences.sender(any(CommandSender.class))).thenReturn(audience);
+        when(audiences.player(any(Player.class))).thenReturn(audience);
+        when(audiences.player(any(UUID.class))).thenReturn(audience);
+        when(audiences.players()).thenReturn(audience);
+
+        try(MockedStatic<BukkitAudiences> factory = mockStatic(BukkitAudiences.class)) {
+            factory.when(() -> BukkitAudiences.create(any(Plugin.class))).thenReturn(audiences);
+            new JadedUtils(plugin);
+        }
+    }
+
+    /**
+     * Creates a stub player.
+     * @param uuid UUID of the player.
+     * @param name Username of the player.
+     * @return Stub player.
+     */
+    @NotNull
+    public static Player createPlayer(@NotNull final UUID uuid, @NotNull final String name) {
+        final Player player = mock(Player.class, withSettings().stubOnly());
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.getName()).thenReturn(name);
+        when(player.getDisplayName()).thenReturn(name);
+        when(player.isOnline()).thenReturn(true);
+        return player;
+    }
+
+    /**
+     * Sets up the stub server, and sets it as Bukkit's server.
+     * @return Stub server.
+     */
+    @NotNull
+    private static Server createServer() {
+        final Logger logger = Logger.getLogger("JadedParty");
+
+        // Scheduler that hands tasks to the node that scheduled them, and ignores delayed and repeating ones.
+        final BukkitScheduler scheduler = mock(BukkitScheduler.class, withSettings().stubOnly());
+        when(scheduler.runTask(any(Plugin.class), any(Runnable.class))).thenAnswer(invocation -> {
+            getNode(invocation.getArgument(0)).runSync(invocation.getArgument(1));
+            return null;
+        });
+        when(scheduler.runTaskAsynchronously(any(Plugin.class), any(Runnable.class))).thenAnswer(invocation -> {
+            getNode(invocation.getArgument(0)).runAsync(invocation.getArgument(1));
+            return null;
+        });
+        when(scheduler.runTaskTimer(any(Plugin.class), any(Runnable.class), anyLong(), anyLong())).thenReturn(mock(BukkitTask.class));
+        when(scheduler.runTaskTimerAsynchronously(any(Plugin.class), any(Runnable.class), anyLong(), anyLong())).thenReturn(mock(BukkitTask.class));
+
+        final Server server = mock(Server.class, withSettings().stubOnly());
+        when(server.getLogger()).thenReturn(logger);
+        when(server.getName()).thenReturn("LoadTest");
+        when(server.getVersion()).thenReturn("LoadTest");
+        when(server.getBukkitVersion()).thenReturn("1.8.8-R0.1-SNAPSHOT");
+        when(server.getScheduler()).thenReturn(scheduler);
+        Bukkit.setServer(server);
+
+        return server;
+    }
+
+    /**
+     * Gets the node that owns a plugin instance.
+     * @param plugin Plugin instance.
+     * @return Node that owns the plugin.
+     */
+    @NotNull
+    private static SimulatedNode getNode(@NotNull final Plugin plugin) {
+        final SimulatedNode node = nodes.get(plugin);
+
+        if(node == null) {
+            throw new IllegalStateException("Task scheduled by an unregistered plugin.");
+        }
+
+        return node;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import net.jadedmc.jadedparty.bukkit.cache.Cache;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes a group of players through the life of a party, using the real party commands.
+ * The leader creates the party, invites and is joined by every member, promotes the first member, and then everyone
+ * leaves, with the leader leaving last to disband it.
+ * Members are spread over different nodes, so every step has to reach the other servers through Redis.
+ * After each step, the party has to look the same in Redis and on every server in the group before the next one runs,
+ * the same way a player would wait to see the result of a command before running another.
+ */
+public class PartyLifecycle {
+    private static final long POLL_INTERVAL = TimeUnit.MICROSECONDS.toNanos(250);
+
+    private final LoadTestOptions options;
+    private final LoadTestMetrics metrics;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Creates the lifecycle.
+     * @param options Options of the run.
+     * @param metrics Metrics to record results in.
+     */
+    public PartyLifecycle(@NotNull final LoadTestOptions options, @NotNull final LoadTestMetrics metrics) {
+        this.options = options;
+        this.metrics = metrics;
+        this.rateLimiter = new RateLimiter(options.rate());
+    }
+
+    /**
+     * Runs the lifecycle once.
+     * If a step fails, the party is removed from Redis and every server so the group can start over cleanly.
+     * @param group Players in the party. The first player is the leader.
+     * @return true if every step succeeded, false if one failed.
+     */
+    public boolean run(@NotNull final List<SimulatedPlayer> group) {
+        final SimulatedPlayer leader = group.get(0);
+        final List<SimulatedPlayer> members = group.subList(1, group.size());
+        final Set<UUID> expected = new HashSet<>();
+        String nanoID = null;
+
+        try {
+            // The leader creates the party.
+            command(leader, "create");
+            nanoID = leader.node().getLocalParty(leader.uuid());
+            if(nanoID == null) {
+                throw new StepFailedException("create", "did not create a party");
+            }
+
+            expected.add(leader.uuid());
+            awaitSync("create", nanoID, expected, group);
+
+            // Every member is invited, and joins.
+            for(final SimulatedPlayer member : members) {
+                command(leader, "invite", member.name());
+                command(member, "accept", leader.name());
+                expected.add(member.uuid());
+                awaitSync("accept", nanoID, expected, group);
+            }
+
+            // The first member is made a moderator.
+            command(leader, "promote", members.get(0).name());
+            awaitSync("promote", nanoID, expected, group);
+
+            // Everyone leaves, which disbands the party once the leader leaves.
+            for(final SimulatedPlayer member : members) {
+                command(member, "leave");
+                expected.remove(member.uuid());
+                awaitSync("leave", nanoID, expected, group);
+            }
+
+            command(leader, "leave");
+            expected.clear();
+            awaitSync("disband", nanoID, expected, group);
+
+            metrics.recordLifecycle();
+            return true;
+        }
+        catch (StepFailedException exception) {
+            metrics.recordFailure(exception.getStep(), exception.getMessage());
+            reset(group, nanoID);
+            return false;
+        }
+    }
+
+    /**
+     * Runs a party command, and records how long it took.
+     * @param player Player running the command.
+     * @param args Command arguments, starting with the sub command.
+     * @throws StepFailedException If the command did not finish in time.
+     */
+    private void command(@NotNull final SimulatedPlayer player, @NotNull final String... args) throws StepFailedException {
+        rateLimiter.acquire();
+
+        final long start = System.nanoTime();
+        final boolean finished = player.node().command(player.player(), options.syncTimeout(), args);
+        metrics.recordCommand(args[0], System.nanoTime() - start);
+
+        if(!finished) {
+            throw new StepFailedException(args[0], "timed out");
+        }
+    }
+
+    /**
+     * Waits for a party to look the same in Redis and on every server in the group, and records how long it took.
+     * @param step Step being waited on.
+     * @param nanoID NanoID of the party.
+     * @param expected UUIDs of the players who should be in the party. Empty if it should no longer exist.
+     * @param group Players in the party.
+     * @throws StepFailedException If the party did not sync in time.
+     */
+    private void awaitSync(@NotNull final String step, @NotNull final String nanoID, @NotNull final Set<UUID> expected, @NotNull final List<SimulatedPlayer> group) throws StepFailedException {
+        final long start = System.nanoTime();
+        final long deadline = start + options.syncTimeout().toNanos();
+
+        while(!isSynced(nanoID, expected, group)) {
+            if(System.nanoTime() >= deadline) {
+                throw new StepFailedException(step, "did not sync");
+            }
+
+            LockSupport.parkNanos(POLL_INTERVAL);
+        }
+
+        metrics.recordSync(System.nanoTime() - start);
+    }
+
+    /**
+     * Check if a party looks the same in Redis and on every server in the group.
+     * Servers with a member on them must have the party cached. Other servers may have it cached, as long as it is
+     * up to date.
+     * @param nanoID NanoID of the party.
+     * @param expected UUIDs of the players who should be in the party. Empty if it should no longer exist.
+     * @param group Players in the party.
+     * @return true if the party is in sync, false if not.
+     */
+    private boolean isSynced(@NotNull final String nanoID, @NotNull final Set<UUID> expected, @NotNull final List<SimulatedPlayer> group) {
+        final Cache cache = group.get(0).node().getPlugin().getConfigManager().getCache();
+        final PartySnapshot snapshot = cache.getParty(nanoID);
+
+        if(expected.isEmpty() ? snapshot != null : snapshot == null || !expected.equals(getMembers(snapshot))) {
+            return false;
+        }
+
+        final Set<SimulatedNode> memberNodes = new HashSet<>();
+        final Set<SimulatedNode> nodes = new LinkedHashSet<>();
+        for(final SimulatedPlayer player : group) {
+            nodes.add(player.node());
+
+            if(expected.contains(player.uuid())) {
+                memberNodes.add(player.node());
+            }
+        }
+
+        try {
+            for(final SimulatedNode node : nodes) {
+                final Set<UUID> members = node.getLocalPartyMembers(nanoID);
+
+                if(members == null ? memberNodes.contains(node) : !expected.equals(members)) {
+                    return false;
+                }
+            }
+        }
+        catch (CompletionException exception) {
+            // The party was being changed by an async task while it was read, so it is still catching up.
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes a party from Redis and every server in the group, and clears the party of every player in it.
+     * @param group Players in the party.
+     * @param nanoID NanoID of the party, or null if it was never created.
+     */
+    private void reset(@NotNull final List<SimulatedPlayer> group, @Nullable final String nanoID) {
+        final List<UUID> players = new ArrayList<>(group.size());
+        final Set<SimulatedNode> nodes = new LinkedHashSet<>();
+        for(final SimulatedPlayer player : group) {
+            players.add(player.uuid());
+            nodes.add(player.node());
+        }
+
+        if(nanoID != null) {
+            group.get(0).node().getPlugin().getConfigManager().getCache().deletePartyDocument(nanoID);
+        }
+
+        for(final SimulatedNode node : nodes) {
+            node.reset(nanoID, players);
+        }
+    }
+
+    /**
+     * Gets the UUIDs of every player in a party snapshot.
+     * @param snapshot Snapshot of the party.
+     * @return UUIDs of the party's members.
+     */
+    @NotNull
+    static Set<UUID> getMembers(@NotNull final PartySnapshot snapshot) {
+        final Set<UUID> members = new HashSet<>();
+        for(final PartyPlayerSnapshot player : snapshot.players()) {
+            members.add(player.uniqueId());
+        }
+
+        return members;
+    }
+
+    /**
+     * Thrown when a step of the lifecycle fails.
+     */
+    private static class StepFailedException extends Exception {
+        private final String step;
+
+        /**
+         * Creates the exception.
+         * @param step Step that failed.
+         * @param reason Why it failed.
+         */
+        StepFailedException(@NotNull final String step, @NotNull final String reason) {
+            super(reason, null, false, false);
+            this.step = step;
+        }
+
+        /**
+         * Gets the step that failed.
+         * @return Name of the step.
+         */
+        @NotNull
+        String getStep() {
+            return step;
+        }
+    }
+}
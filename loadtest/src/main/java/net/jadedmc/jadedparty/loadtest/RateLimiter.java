@@ -0,0 +1,66 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spaces out commands so they don't exceed a fixed rate across all threads.
+ */
+final class RateLimiter {
+    private final long intervalNanos;
+    private long nextPermit = System.nanoTime();
+
+    /**
+     * Creates the rate limiter.
+     * @param permitsPerSecond Maximum number of permits handed out per second, or 0 for no limit.
+     */
+    RateLimiter(final double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond == 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * Waits until the next permit is available.
+     */
+    void acquire() {
+        if(intervalNanos == 0) {
+            return;
+        }
+
+        // Reserve the next slot, then wait for it outside the lock.
+        final long wait;
+        synchronized(this) {
+            final long now = System.nanoTime();
+            nextPermit = Math.max(nextPermit, now);
+            wait = nextPermit - now;
+            nextPermit += intervalNanos;
+        }
+
+        if(wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import net.jadedmc.jadedparty.bukkit.JadedPartyBukkit;
+import net.jadedmc.jadedparty.bukkit.commands.party.PartyAcceptCMD;
+import net.jadedmc.jadedparty.bukkit.commands.party.PartyCreateCMD;
+import net.jadedmc.jadedparty.bukkit.commands.party.PartyInviteCMD;
+import net.jadedmc.jadedparty.bukkit.commands.party.PartyLeaveCMD;
+import net.jadedmc.jadedparty.bukkit.commands.party.PartyPromoteCMD;
+import net.jadedmc.jadedparty.bukkit.databases.Redis;
+import net.jadedmc.jadedparty.bukkit.listeners.PlayerJoinListener;
+import net.jadedmc.jadedparty.bukkit.party.Party;
+import net.jadedmc.jadedparty.bukkit.party.PartyManager;
+import net.jadedmc.jadedparty.bukkit.party.PartyPlayer;
+import net.jadedmc.jadedparty.bukkit.settings.ConfigManager;
+import net.jadedmc.jadedparty.bukkit.settings.HookManager;
+import net.jadedmc.jadedparty.bukkit.utils.logging.PartyLogger;
+import net.jadedmc.jadedparty.bukkit.utils.metrics.LatencyHistogram;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.nanoid.NanoID;
+import org.bukkit.Server;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * One simulated Bukkit server running the plugin against Redis.
+ * The plugin instance is a stub, while the configuration, cache, party manager, message processor, join listener and
+ * commands are the real classes.
+ * Each node has a single main thread, and an unbounded pool for async tasks, like the Bukkit scheduler.
+ */
+public class SimulatedNode {
+    // Only the first few task failures are printed, so a broken run doesn't flood the console.
+    private static final int MAX_LOGGED_ERRORS = 10;
+    private static final AtomicInteger loggedErrors = new AtomicInteger();
+
+    private final String name;
+    private final JadedPartyBukkit plugin;
+    private final ExecutorService mainThread;
+    private final ExecutorService asyncPool;
+    private final LongAdder errors = new LongAdder();
+
+    private final PlayerJoinListener joinListener;
+    private final PartyAcceptCMD acceptCommand;
+    private final PartyCreateCMD createCommand;
+    private final PartyInviteCMD inviteCommand;
+    private final PartyLeaveCMD leaveCommand;
+    private final PartyPromoteCMD promoteCommand;
+
+    /**
+     * Creates the node and connects it to Redis.
+     * @param id Number of the node, used in its name.
+     * @param redisHost Host of the Redis server.
+     * @param redisPort Port of the Redis server.
+     * @param joinLatency Histogram join times are recorded in, shared by every node.
+     */
+    public SimulatedNode(final int id, @NotNull final String redisHost, final int redisPort, @NotNull final LatencyHistogram joinLatency) {
+        this.name = "node-" + id;
+        this.mainThread = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, name + " main"));
+
+        final AtomicInteger asyncThreads = new AtomicInteger();
+        this.asyncPool = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, name + " async-" + asyncThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.plugin = createPlugin(redisHost, redisPort, joinLatency);
+        this.plugin.getRedis().connect();
+
+        this.joinListener = new PlayerJoinListener(plugin);
+        this.acceptCommand = new PartyAcceptCMD(plugin);
+        this.createCommand = new PartyCreateCMD(plugin);
+        this.inviteCommand = new PartyInviteCMD(plugin);
+        this.leaveCommand = new PartyLeaveCMD(plugin);
+        this.promoteCommand = new PartyPromoteCMD(plugin);
+    }
+
+    /**
+     * Runs a party command as a player, and waits for it to finish.
+     * The command runs on the main thread, and finishes once every async task it scheduled is done,
+     * and, for commands that run as a pipeline, once the future it returned completes.
+     * @param player Player running the command.
+     * @param timeout Maximum time to wait.
+     * @param args Command arguments, starting with the sub command.
+     * @return true if the command finished, false if the timeout passed first.
+     */
+    public boolean command(@NotNull final Player player, @NotNull final Duration timeout, @NotNull final String... args) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        final AtomicReference<CompletableFuture<Void>> pipeline = new AtomicReference<>();
+
+        final boolean finished = track(timeout, () -> {
+            switch(args[0]) {
+                case "accept" -> pipeline.set(acceptCommand.execute(player, args));
+                case "create" -> pipeline.set(createCommand.execute(player, args));
+                case "invite" -> pipeline.set(inviteCommand.execute(player, args));
+                case "leave" -> pipeline.set(leaveCommand.execute(player, args));
+                case "promote" -> pipeline.set(promoteCommand.execute(player, args));
+                default -> throw new IllegalArgumentException("Unsupported command " + args[0]);
+            }
+        });
+
+        if(!finished || pipeline.get() == null) {
+            return finished;
+        }
+
+        try {
+            pipeline.get().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        }
+        catch (TimeoutException exception) {
+            return false;
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        catch (ExecutionException exception) {
+            errors.increment();
+            return true;
+        }
+    }
+
+    /**
+     * Simulates a player joining the server, and waits for their party data to be loaded.
+     * @param player Player joining.
+     * @param timeout Maximum time to wait.
+     * @return true if the join finished, false if the timeout passed first.
+     */
+    public boolean join(@NotNull final Player player, @NotNull final Duration timeout) {
+        return track(timeout, () -> joinListener.onJoin(new PlayerJoinEvent(player, null)));
+    }
+
+    /**
+     * Gets the members of every party cached on this node.
+     * Read on the main thread, since that is where the plugin expects local parties to be used.
+     * @return Map of party NanoIDs to the UUIDs of their members.
+     */
+    @NotNull
+    public Map<String, Set<UUID>> getLocalParties() {
+        return CompletableFuture.supplyAsync(() -> {
+            final Map<String, Set<UUID>> parties = new HashMap<>();
+
+            for(final Party party : plugin.getPartyManager().getLocalParties()) {
+                parties.put(party.getNanoID().toString(), new HashSet<>(party.getPlayers().keySet()));
+            }
+
+            return parties;
+        }, mainThread).join();
+    }
+
+    /**
+     * Gets the members of a party cached on this node.
+     * @param nanoID NanoID of the party.
+     * @return UUIDs of the party's members, or null if the party is not cached on this node.
+     */
+    @Nullable
+    public Set<UUID> getLocalPartyMembers(@NotNull final String nanoID) {
+        return CompletableFuture.supplyAsync(() -> {
+            final Party party = plugin.getPartyManager().getLocalPartyFromNanoID(NanoID.fromString(nanoID));
+            return party == null ? null : new HashSet<>(party.getPlayers().keySet());
+        }, mainThread).join();
+    }
+
+    /**
+     * Gets the NanoID of the party a player is in, according to this node.
+     * @param playerUUID UUID of the player.
+     * @return NanoID of their party, or null if they are not in one.
+     */
+    @Nullable
+    public String getLocalParty(@NotNull final UUID playerUUID) {
+        return CompletableFuture.supplyAsync(() -> {
+            final Party party = plugin.getPartyManager().getLocalPartyFromPlayer(playerUUID);
+            return party == null ? null : party.getNanoID().toString();
+        }, mainThread).join();
+    }
+
+    /**
+     * Removes parties from this node, and clears the party of its players, without announcing it.
+     * Used to start a party over after a failed step, so one failure doesn't cause the following steps to fail too.
+     * @param nanoID NanoID of the party to remove, or null if only the players should be cleared.
+     * @param players UUIDs of the players to clear.
+     */
+    public void reset(@Nullable final String nanoID, @NotNull final Collection<UUID> players) {
+        CompletableFuture.runAsync(() -> {
+            final PartyManager partyManager = plugin.getPartyManager();
+
+            if(nanoID != null) {
+                final Party party = partyManager.getLocalPartyFromNanoID(NanoID.fromString(nanoID));
+
+                if(party != null) {
+                    partyManager.deleteLocalParty(party);
+                }
+            }
+
+            for(final UUID playerUUID : players) {
+                // Also drops any other party this node still thinks the player is in.
+                final Party party = partyManager.getLocalPartyFromPlayer(playerUUID);
+                if(party != null) {
+                    partyManager.deleteLocalParty(party);
+                }
+
+                final PartyPlayer partyPlayer = partyManager.getLocalPartyPlayers().get(playerUUID);
+                if(partyPlayer == null) {
+                    continue;
+                }
+
+                partyPlayer.setRole(PartyRole.NONE);
+                partyPlayer.setPartyNanoID(null);
+                plugin.getConfigManager().getCache().setPartyPlayer(partyPlayer.toSnapshot());
+            }
+        }, mainThread).join();
+    }
+
+    /**
+     * Gets the name of the node.
+     * @return Name of the node.
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the node's plugin instance.
+     * @return Stub plugin instance.
+     */
+    @NotNull
+    public JadedPartyBukkit getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Gets the number of tasks that threw an exception on this node.
+     * @return Number of failed tasks.
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Runs a task on the node's main thread.
+     * @param task Task to run.
+     */
+    void runSync(@NotNull final Runnable task) {
+        final TaskTracker tracker = TaskTracker.current();
+        if(tracker != null) {
+            tracker.fork();
+        }
+
+        mainThread.execute(() -> TaskTracker.run(tracker, () -> handleErrors(task)));
+    }
+
+    /**
+     * Runs a task on the node's async pool.
+     * @param task Task to run.
+     */
+    void runAsync(@NotNull final Runnable task) {
+        final TaskTracker tracker = TaskTracker.current();
+        if(tracker != null) {
+            tracker.fork();
+        }
+
+        asyncPool.execute(() -> TaskTracker.run(tracker, () -> handleErrors(task)));
+    }
+
+    /**
+     * Disconnects from Redis and stops the node's threads.
+     */
+    public void shutdown() {
+        plugin.getConfigManager().getCache().shutdown(1000);
+        plugin.getRedis().close(1000);
+        mainThread.shutdown();
+        asyncPool.shutdown();
+
+        try {
+            mainThread.awaitTermination(5, TimeUnit.SECONDS);
+            asyncPool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        plugin.getPartyLogger().shutdown();
+    }
+
+    /**
+     * Runs a task on the main thread, and waits for it and every task it schedules to finish.
+     * @param timeout Maximum time to wait.
+     * @param task Task to run.
+     * @return true if everything finished, false if the timeout passed first.
+     */
+    private boolean track(@NotNull final Duration timeout, @NotNull final Runnable task) {
+        final TaskTracker tracker = new TaskTracker();
+        mainThread.execute(() -> TaskTracker.run(tracker, () -> handleErrors(task)));
+        return tracker.await(timeout);
+    }
+
+    /**
+     * Runs a task, counting and reporting any exception instead of letting it kill the thread.
+     * @param task Task to run.
+     */
+    private void handleErrors(@NotNull final Runnable task) {
+        try {
+            task.run();
+        }
+        catch (Throwable throwable) {
+            errors.increment();
+
+            if(loggedErrors.incrementAndGet() <= MAX_LOGGED_ERRORS) {
+                Logger.getLogger("JadedParty").log(Level.WARNING, "Task failed on " + name, throwable);
+            }
+        }
+    }
+
+    /**
+     * Sets up the stub plugin, configured to use Redis and sync parties between servers.
+     * @param redisHost Host of the Redis server.
+     * @param redisPort Port of the Redis server.
+     * @param joinLatency Histogram join times are recorded in.
+     * @return Stub plugin.
+     */
+    @NotNull
+    private JadedPartyBukkit createPlugin(@NotNull final String redisHost, final int redisPort, @NotNull final LatencyHistogram joinLatency) {
+        final Server server = LoadTestServer.getServer();
+
+        // Copy the default messages into a temporary data folder.
+        final File dataFolder;
+        try {
+            dataFolder = Files.createTempDirectory("jadedparty-loadtest-" + name).toFile();
+            dataFolder.deleteOnExit();
+
+            try(InputStream stream = getResource("messages.yml")) {
+                final File file = new File(dataFolder, "messages.yml");
+                Files.copy(stream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                file.deleteOnExit();
+            }
+        }
+        catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        // Default config.yml, switched over to syncing parties through Redis.
+        final YamlConfiguration config = YamlConfiguration.loadConfiguration(new InputStreamReader(getResource("config.yml"), StandardCharsets.UTF_8));
+        config.set("debugMode", false);
+        config.set("standalone", false);
+        config.set("Cache.type", "REDIS");
+        config.set("Cache.Redis.host", redisHost);
+        config.set("Cache.Redis.port", redisPort);
+        config.set("Cache.Warmup.enabled", false);
+
+        final JadedPartyBukkit plugin = mock(JadedPartyBukkit.class, withSettings().stubOnly());
+        final HookManager hookManager = mock(HookManager.class, withSettings().stubOnly());
+        final PartyLogger partyLogger = new PartyLogger(plugin);
+
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getLogger()).thenReturn(server.getLogger());
+        when(plugin.getName()).thenReturn("JadedParty");
+        when(plugin.isEnabled()).thenReturn(true);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getConfig()).thenReturn(config);
+        when(plugin.getHookManager()).thenReturn(hookManager);
+        when(plugin.getPartyLogger()).thenReturn(partyLogger);
+        when(plugin.getJoinLatency()).thenReturn(joinLatency);
+        LoadTestServer.register(plugin, this);
+
+        // Created in the same order as the plugin's onEnable.
+        final Redis redis = new Redis(plugin);
+        when(plugin.getRedis()).thenReturn(redis);
+
+        final ConfigManager configManager = new ConfigManager(plugin);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+
+        final PartyManager partyManager = new PartyManager(plugin);
+        when(plugin.getPartyManager()).thenReturn(partyManager);
+
+        return plugin;
+    }
+
+    /**
+     * Opens one of the plugin's resources.
+     * @param name Name of the resource.
+     * @return Stream of the resource.
+     */
+    @NotNull
+    private static InputStream getResource(@NotNull final String name) {
+        return Objects.requireNonNull(JadedPartyBukkit.class.getResourceAsStream("/" + name), "Missing resource " + name);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.loadtest;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks a command and every async task it schedules, including tasks scheduled by those tasks.
+ * Lets the load test measure a command until all of its work is done, not just until it returns.
+ */
+final class TaskTracker {
+    private static final ThreadLocal<TaskTracker> CURRENT = new ThreadLocal<>();
+
+    // Starts at one for the task that created the tracker.
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    /**
+     * Gets the tracker of the task running on the current thread.
+     * @return Current tracker, or null if the task is not being tracked.
+     */
+    @Nullable
+    static TaskTracker current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a task as part of a tracker, then marks it as finished.
+     * @param tracker Tracker the task belongs to, or null to run it untracked.
+     * @param task Task to run.
+     */
+    static void run(@Nullable final TaskTracker tracker, @NotNull final Runnable task) {
+        CURRENT.set(tracker);
+
+        try {
+            task.run();
+        }
+        finally {
+            CURRENT.remove();
+
+            if(tracker != null) {
+                tracker.complete();
+            }
+        }
+    }
+
+    /**
+     * Registers another task that has to finish before the tracker is done.
+     */
+    void fork() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Marks one task as finished.
+     */
+    void complete() {
+        if(pending.decrementAndGet() == 0) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * Waits for every tracked task to finish.
+     * @param timeout Maximum time to wait.
+     * @return true if every task finished, false if the timeout passed first.
+     */
+    boolean await(@NotNull final Duration timeout) {
+        try {
+            done.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        }
+        catch (TimeoutException | ExecutionException exception) {
+            return false;
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -26,16 +26,22 @@ package net.jadedmc.jadedparty.velocity;
 
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
 import net.jadedmc.jadedparty.velocity.databases.Redis;
 import net.jadedmc.jadedparty.velocity.listeners.DisconnectListener;
+import net.jadedmc.jadedparty.velocity.party.PartyManager;
 import net.jadedmc.jadedparty.velocity.settings.ConfigManager;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Plugin(
         id = "jadedparty",
@@ -45,7 +51,9 @@ import java.nio.file.Path;
 )
 public class JadedPartyVelocity {
     private final ConfigManager configManager;
+    private final ExecutorService ioExecutor;
     private final Logger logger;
+    private final PartyManager partyManager;
     private final ProxyServer proxyServer;
     private final Redis redis;
 
@@ -59,16 +67,37 @@ public class JadedPartyVelocity {
 
         // Connect to redis.
         this.redis = new Redis(this);
+
+        // Create the threads used for Redis requests.
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.ioExecutor = Executors.newFixedThreadPool(Math.max(1, configManager.getConfig().getInt("Redis.ioThreads", 4)), runnable -> {
+            final Thread thread = new Thread(runnable, "JadedParty I/O " + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.partyManager = new PartyManager(this);
     }
 
     public ConfigManager getConfigManager() {
         return this.configManager;
     }
 
+    /**
+     * Gets the executor used for Redis requests, so they never run on the proxy's event threads.
+     * @return I/O executor.
+     */
+    public ExecutorService getIoExecutor() {
+        return this.ioExecutor;
+    }
+
     public Logger getLogger() {
         return this.logger;
     }
 
+    public PartyManager getPartyManager() {
+        return this.partyManager;
+    }
+
     public ProxyServer getProxyServer() {
         return this.proxyServer;
     }
@@ -80,5 +109,28 @@ public class JadedPartyVelocity {
     @Subscribe
     public void onProxyInitialization(ProxyInitializeEvent event) {
         proxyServer.getEventManager().register(this, new DisconnectListener(this));
+
+        // Start mirroring parties once the party manager exists.
+        // Once subscribed, the proxy also takes over delivering messages and moving players from the backend servers.
+        redis.subscribe();
+    }
+
+    @Subscribe
+    public void onProxyShutdown(ProxyShutdownEvent event) {
+        redis.unsubscribe();
+
+        // Let queued Redis requests finish before closing the connection.
+        ioExecutor.shutdown();
+
+        try {
+            if(!ioExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Some Redis requests did not finish before shutdown.");
+            }
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        redis.jedisPool().close();
     }
 }
\ No newline at end of file
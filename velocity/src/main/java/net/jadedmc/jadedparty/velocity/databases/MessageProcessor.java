@@ -0,0 +1,125 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.velocity.databases;
+
+import com.velocitypowered.api.proxy.Player;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.velocity.JadedPartyVelocity;
+import net.jadedmc.jadedparty.velocity.utils.ChatUtils;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Reads and processes messages sent through Redis Pub/Sub.
+ * Runs on the subscriber thread, so messages are processed in the order they were published.
+ */
+public class MessageProcessor {
+    private final JadedPartyVelocity plugin;
+
+    /**
+     * Creates the message processor.
+     * @param plugin Instance of the plugin.
+     */
+    public MessageProcessor(@NotNull final JadedPartyVelocity plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Processes a message from a given channel.
+     * @param channel Channel the message is from.
+     * @param message Message to be processed.
+     */
+    public void process(@NotNull final String channel, @NotNull final String message) {
+        switch (channel) {
+            case CacheKeys.PARTY_CHANNEL -> plugin.getPartyManager().processMessage(message);
+            case CacheKeys.PLUGIN_CHANNEL -> jadedPartyChannel(message);
+        }
+    }
+
+    /**
+     * Processes messages for the "jadedparty" channel.
+     * Contains non-party specific cross-server messages.
+     * @param msg Message being processed.
+     */
+    private void jadedPartyChannel(@NotNull final String msg) {
+        final String[] args = msg.split(" ");
+
+        switch(args[0].toLowerCase()) {
+            // Sends a message to a specific player or group of players no matter what server they are on.
+            case "message" -> {
+                // Backend servers deliver the message until they know this proxy is online.
+                // While they find out, a player may see a party chat message twice, which is better than missing it.
+                if(!plugin.getRedis().isDelivering()) {
+                    return;
+                }
+
+                // Everything after the list of players is the message.
+                final int messageStart = args[0].length() + args[1].length() + 2;
+                if(messageStart > msg.length()) {
+                    return;
+                }
+
+                // The same player can be listed more than once, but should only get one copy.
+                final Set<UUID> playerUUIDs = new LinkedHashSet<>();
+                for(final String playerUUID : args[1].split(",")) {
+                    playerUUIDs.add(UUID.fromString(playerUUID));
+                }
+
+                // Parse the message once, no matter how many players receive it.
+                Component component = null;
+                for(final UUID playerUUID : playerUUIDs) {
+                    // Players on other proxies get the message from their own proxy.
+                    final Player player = plugin.getProxyServer().getPlayer(playerUUID).orElse(null);
+                    if(player == null) {
+                        continue;
+                    }
+
+                    if(component == null) {
+                        component = ChatUtils.translate(msg.substring(messageStart));
+                    }
+
+                    player.sendMessage(component);
+                }
+            }
+
+            // Moves a player, or group of players, to a different server.
+            case "connect" -> {
+                // Backend servers move the players until they know this proxy is online.
+                if(!plugin.getRedis().isDelivering()) {
+                    return;
+                }
+
+                final List<UUID> playerUUIDs = new ArrayList<>();
+                for(final String playerUUID : args[1].split(",")) {
+                    playerUUIDs.add(UUID.fromString(playerUUID));
+                }
+
+                plugin.getPartyManager().connect(playerUUIDs, args[2]);
+            }
+        }
+    }
+}
@@ -24,19 +24,16 @@
  */
 package net.jadedmc.jadedparty.velocity.databases;
 
-import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
 import net.jadedmc.jadedparty.velocity.JadedPartyVelocity;
-import net.jadedmc.jadedparty.velocity.utils.StringUtils;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.jetbrains.annotations.NotNull;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 import redis.clients.jedis.JedisPubSub;
 
-import java.util.Arrays;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages the connection process to Redis.
@@ -44,6 +41,10 @@ import java.util.UUID;
 public class Redis {
     private final JadedPartyVelocity plugin;
     private final JedisPool jedisPool;
+    private final MessageProcessor messageProcessor;
+    private volatile JedisPubSub subscriber;
+    private volatile long lastHeartbeat = 0;
+    private volatile ScheduledTask heartbeatTask;
 
     /**
      * Connects to Redis.
@@ -51,6 +52,7 @@ public class Redis {
      */
     public Redis(@NotNull final JadedPartyVelocity plugin) {
         this.plugin = plugin;
+        this.messageProcessor = new MessageProcessor(plugin);
 
         JedisPoolConfig jedisPoolConfig = new JedisPoolConfig();
         jedisPoolConfig.setMaxTotal(Integer.MAX_VALUE);
@@ -61,8 +63,6 @@ public class Redis {
         String password = plugin.getConfigManager().getConfig().getString("Redis.password");
 
         jedisPool = new JedisPool(jedisPoolConfig, host, port, username, password);
-
-        //subscribe();
     }
 
     public JedisPool jedisPool() {
@@ -81,6 +81,12 @@ public class Redis {
         }
     }
 
+    public void setex(String key, long seconds, String value) {
+        try(Jedis jedis = jedisPool.getResource()) {
+            jedis.setex(key, seconds, value);
+        }
+    }
+
     public void sadd(String key, String value) {
         try(Jedis jedis = jedisPool.getResource()) {
             jedis.sadd(key, value);
@@ -93,40 +99,39 @@ public class Redis {
         }
     }
 
+    /**
+     * Starts listening for party messages on a dedicated thread.
+     * Parties are loaded into the proxy's mirror once the subscription is active.
+     * Once messages are being received, the proxy also takes over delivering them from the backend servers.
+     */
     public void subscribe() {
+        this.subscriber = new JedisPubSub() {
+            @Override
+            public void onSubscribe(String channel, int subscribedChannels) {
+                switch(channel) {
+                    case CacheKeys.PARTY_CHANNEL -> plugin.getPartyManager().loadPartiesAsync();
+
+                    // Only take over once messages are being received, so none are missed in between.
+                    case CacheKeys.PLUGIN_CHANNEL -> startHeartbeat();
+                }
+            }
+
+            @Override
+            public void onMessage(String channel, String msg) {
+                try {
+                    messageProcessor.process(channel, msg);
+                }
+                catch (Exception exception) {
+                    plugin.getLogger().error("Could not process message on " + channel + ": " + msg, exception);
+                }
+            }
+        };
+
         new Thread("Redis Subscriber") {
             @Override
             public void run() {
-
                 try (Jedis jedis = jedisPool.getResource()) {
-                    jedis.subscribe(new JedisPubSub() {
-                        @Override
-                        public void onMessage(String channel, String msg) {
-                            if(!channel.equals("jadedparty")) {
-                                return;
-                            }
-
-                            String[] args = msg.split(" ");
-
-                            if(args[0].equals("message")) {
-                                String[] playerUUIDs = args[1].split(",");
-                                String message = StringUtils.join(Arrays.copyOfRange(args, 2, args.length), " ");
-                                Component formattedMessage = MiniMessage.miniMessage().deserialize(message);
-
-                                for(String playerUUID : playerUUIDs) {
-                                    UUID uuid = UUID.fromString(playerUUID);
-
-                                    if(plugin.getProxyServer().getPlayer(uuid).isEmpty()) {
-                                        continue;
-                                    }
-
-                                    Player player = plugin.getProxyServer().getPlayer(uuid).get();
-                                    player.sendMessage(formattedMessage);
-                                }
-                            }
-
-                        }
-                    }, "jadedparty");
+                    jedis.subscribe(subscriber, CacheKeys.PARTY_CHANNEL, CacheKeys.PLUGIN_CHANNEL);
                 }
                 catch (Exception exception) {
                     exception.printStackTrace();
@@ -134,4 +139,82 @@ public class Redis {
             }
         }.start();
     }
-}
\ No newline at end of file
+
+    /**
+     * Starts refreshing the proxy key, which tells backend servers to leave messages and server switches to the proxy.
+     * The first refresh runs right away, and announces the proxy so backend servers stop delivering without waiting for their next check.
+     */
+    private void startHeartbeat() {
+        if(heartbeatTask != null) {
+            return;
+        }
+
+        this.heartbeatTask = plugin.getProxyServer().getScheduler().buildTask(plugin, this::heartbeat)
+                .repeat(CacheKeys.PROXY_HEARTBEAT_SECONDS, TimeUnit.SECONDS)
+                .schedule();
+    }
+
+    /**
+     * Refreshes the proxy key.
+     * <b>Warning: Database operation.</b>
+     */
+    private void heartbeat() {
+        try {
+            setex(CacheKeys.PROXY, CacheKeys.PROXY_EXPIRE_SECONDS, "1");
+
+            // Announce the proxy the first time the key is written.
+            final boolean first = lastHeartbeat == 0;
+            lastHeartbeat = System.currentTimeMillis();
+
+            if(first) {
+                publish(CacheKeys.PLUGIN_CHANNEL, CacheKeys.PROXY_STATUS + " online");
+            }
+        }
+        catch (Exception exception) {
+            plugin.getLogger().error("Could not refresh the proxy key.", exception);
+        }
+    }
+
+    /**
+     * Check if this proxy delivers messages and moves players between servers.
+     * Backend servers deliver until they have seen the proxy key, so the proxy starts as soon as it writes it,
+     * and keeps going if it can't refresh it until backend servers have had a chance to see it expire.
+     * Both may deliver for a moment during the handover, but there is never a gap where neither does.
+     * @return true if this proxy delivers them, false if only the backend servers do.
+     */
+    public boolean isDelivering() {
+        final long heartbeat = this.lastHeartbeat;
+        if(heartbeat == 0) {
+            return false;
+        }
+
+        final long handover = (CacheKeys.PROXY_EXPIRE_SECONDS + CacheKeys.PROXY_HEARTBEAT_SECONDS) * 1000L;
+        return System.currentTimeMillis() - heartbeat < handover;
+    }
+
+    /**
+     * Hands delivering messages and moving players back to the backend servers, then stops listening for messages.
+     * The proxy key is deleted and the proxy announced offline before unsubscribing, so backend servers start
+     * delivering while this proxy still does. If other proxies are running, backend servers deliver alongside them
+     * until their next refresh writes the key again.
+     */
+    public void unsubscribe() {
+        if(heartbeatTask != null) {
+            heartbeatTask.cancel();
+        }
+
+        if(lastHeartbeat != 0) {
+            try {
+                del(CacheKeys.PROXY);
+                publish(CacheKeys.PLUGIN_CHANNEL, CacheKeys.PROXY_STATUS + " offline");
+            }
+            catch (Exception exception) {
+                plugin.getLogger().error("Could not hand delivering messages back to the backend servers.", exception);
+            }
+        }
+
+        if(subscriber != null && subscriber.isSubscribed()) {
+            subscriber.unsubscribe();
+        }
+    }
+}
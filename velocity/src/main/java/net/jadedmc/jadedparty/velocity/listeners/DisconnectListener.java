@@ -24,18 +24,11 @@
  */
 package net.jadedmc.jadedparty.velocity.listeners;
 
+import com.velocitypowered.api.event.EventTask;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
-import com.velocitypowered.api.proxy.Player;
 import net.jadedmc.jadedparty.velocity.JadedPartyVelocity;
-import net.jadedmc.jadedparty.velocity.party.Party;
-import net.jadedmc.jadedparty.velocity.party.PartyPlayer;
-import net.jadedmc.jadedparty.velocity.party.PartyRole;
-import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
-import redis.clients.jedis.Jedis;
-
-import java.util.Set;
 
 public class DisconnectListener {
     private final JadedPartyVelocity plugin;
@@ -45,34 +38,8 @@ public class DisconnectListener {
     }
 
     @Subscribe
-    public void onDisconnect(final DisconnectEvent event) {
-        final Player player = event.getPlayer();
-        plugin.getRedis().del("jadedparty:players:" + player.getUniqueId().toString());
-
-        try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
-            Set<String> names = jedis.keys("jadedparty:parties:*");
-
-            // Loops through each stored party.
-            for(String key : names) {
-                Document document = Document.parse(jedis.get("jadedparty:parties:" + key.replace("jadedparty:parties:", "")));
-                Party party = new Party(plugin, document);
-
-                // If the player is in that party, cache the party to memory.
-                if(party.hasPlayer(player)) {
-                    PartyPlayer partyPlayer = party.getPlayer(player.getUniqueId());
-
-                    if(partyPlayer.getRole() != PartyRole.LEADER) {
-                        party.sendMessage("<green><bold>Party</bold> <dark_gray>» " + partyPlayer.getPrefix() + "<gray>" + partyPlayer.getName() + " <green>has left the party.");
-                        party.removePlayer(player);
-                        return;
-                    }
-
-                    party.sendMessage("<green><bold>Party</bold> <dark_gray>» <green>The party has been disbanded!");
-                    party.disband();
-
-                    break;
-                }
-            }
-        }
+    public EventTask onDisconnect(final DisconnectEvent event) {
+        // Removes the player from their party on the I/O executor, so the event thread is released while Redis responds.
+        return EventTask.resumeWhenComplete(plugin.getPartyManager().handleDisconnectAsync(event.getPlayer().getUniqueId()));
     }
 }
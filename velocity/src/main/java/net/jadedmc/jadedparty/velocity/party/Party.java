@@ -1,10 +1,15 @@
 package net.jadedmc.jadedparty.velocity.party;
 
 import com.velocitypowered.api.proxy.Player;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.jadedparty.common.party.PartySnapshot;
 import net.jadedmc.jadedparty.velocity.JadedPartyVelocity;
 import net.jadedmc.nanoid.NanoID;
 import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
+import redis.clients.jedis.Transaction;
 
 import java.util.*;
 
@@ -19,25 +24,69 @@ public class Party {
 
     /**
      * Creates the party using a Bson Document.
+     * @param plugin Instance of the plugin.
      * @param document Bson document.
      */
     public Party(@NotNull final JadedPartyVelocity plugin, @NotNull final Document document) {
+        this(plugin, PartySnapshot.fromDocument(document));
+    }
+
+    /**
+     * Creates the party from a snapshot of its state.
+     * @param plugin Instance of the plugin.
+     * @param snapshot Snapshot to use.
+     */
+    public Party(@NotNull final JadedPartyVelocity plugin, @NotNull final PartySnapshot snapshot) {
         this.plugin = plugin;
-        this.nanoID = NanoID.fromString(document.getString("nanoID"));
+        this.nanoID = NanoID.fromString(snapshot.nanoID());
 
-        // Load the players from the document.
-        final Document playersDocument = document.get("players", Document.class);
-        for(final String player : playersDocument.keySet()) {
-            players.add(new PartyPlayer(playersDocument.get(player, Document.class)));
+        for(final PartyPlayerSnapshot player : snapshot.players()) {
+            players.add(new PartyPlayer(player));
         }
+
+        this.invites.addAll(snapshot.invites());
     }
 
     /**
      * Disbands the party.
+     * <b>Warning: Database operation. Call from the I/O executor.</b>
      */
     public void disband() {
-        plugin.getRedis().publish("jadedparty", "disband " + this.nanoID.toString());
-        plugin.getRedis().del("jadedparty:parties:" + this.nanoID);
+        plugin.getRedis().publish(CacheKeys.PARTY_CHANNEL, "disband " + this.nanoID.toString());
+        plugin.getRedis().del(CacheKeys.PARTIES + this.nanoID);
+        plugin.getRedis().del(CacheKeys.IDS + this.nanoID);
+    }
+
+    /**
+     * Queues disbanding the party in a Redis transaction.
+     * Deletes the party, clears the party from every remaining member's document, and announces the disband.
+     * Nothing happens unless the transaction is executed.
+     * @param transaction Transaction to queue the commands in.
+     */
+    public void disband(@NotNull final Transaction transaction) {
+        transaction.del(CacheKeys.PARTIES + this.nanoID, CacheKeys.IDS + this.nanoID);
+
+        for(final PartyPlayer partyPlayer : players) {
+            partyPlayer.setRole(PartyRole.NONE);
+            partyPlayer.setParty(null);
+            transaction.set(CacheKeys.PLAYERS + partyPlayer.getUniqueID(), partyPlayer.toDocument().toJson());
+        }
+
+        transaction.publish(CacheKeys.PARTY_CHANNEL, "disband " + this.nanoID);
+    }
+
+    /**
+     * Gets the leader of the party.
+     * @return Leader of the party, or null if there isn't one.
+     */
+    public PartyPlayer getLeader() {
+        for(final PartyPlayer partyPlayer : this.players) {
+            if(partyPlayer.getRole() == PartyRole.LEADER) {
+                return partyPlayer;
+            }
+        }
+
+        return null;
     }
 
     public NanoID getNanoID() {
@@ -77,22 +126,26 @@ public class Party {
 
     /**
      * Removes a player from the party.
+     * <b>Warning: Database operation. Call from the I/O executor.</b>
      * @param player Player to remove.
      */
     public void removePlayer(final Player player) {
-        for(PartyPlayer partyPlayer : players) {
-            if(partyPlayer.getUniqueID().equals(player.getUniqueId())) {
-                players.remove(partyPlayer);
-                break;
-            }
-        }
-
-        plugin.getRedis().publish("jadedparty", "leave " + this.nanoID.toString() + " " + player.getUniqueId().toString());
+        removePlayer(player.getUniqueId());
+        plugin.getRedis().publish(CacheKeys.PARTY_CHANNEL, "leave " + this.nanoID.toString() + " " + player.getUniqueId().toString());
         update();
     }
 
+    /**
+     * Removes a player from the cached party, without saving it.
+     * @param playerUUID UUID of the player to remove.
+     */
+    public void removePlayer(@NotNull final UUID playerUUID) {
+        players.removeIf(partyPlayer -> partyPlayer.getUniqueID().equals(playerUUID));
+    }
+
     /**
      * Sends a message to all members of the party.
+     * <b>Warning: Database operation. Call from the I/O executor.</b>
      * @param message Message to be sent.
      */
     public void sendMessage(@NotNull final String message) {
@@ -103,7 +156,27 @@ public class Party {
         });
 
         final String targets = builder.substring(0, builder.length() - 1);
-        plugin.getRedis().publish("jadedparty", "message " + targets + " " + message);
+        plugin.getRedis().publish(CacheKeys.PLUGIN_CHANNEL, "message " + targets + " " + message);
+    }
+
+    /**
+     * Queues a message to all members of the party in a Redis transaction.
+     * @param transaction Transaction to queue the message in.
+     * @param message Message to be sent.
+     */
+    public void sendMessage(@NotNull final Transaction transaction, @NotNull final String message) {
+        if(players.isEmpty()) {
+            return;
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        players.forEach(partyPlayer -> {
+            builder.append(partyPlayer.getUniqueID());
+            builder.append(",");
+        });
+
+        final String targets = builder.substring(0, builder.length() - 1);
+        transaction.publish(CacheKeys.PLUGIN_CHANNEL, "message " + targets + " " + message);
     }
 
     /**
@@ -111,28 +184,39 @@ public class Party {
      * @return Bson document of the party.
      */
     public Document toDocument() {
-        final Document document = new Document();
-        document.append("nanoID", this.nanoID.toString());
+        return toSnapshot().toDocument();
+    }
 
-        final Document playersDocument = new Document();
-        for(PartyPlayer player : players) {
-            playersDocument.append(player.getUniqueID().toString(), player.toDocument());
+    /**
+     * Creates an immutable snapshot of the party's current state.
+     * @return Snapshot of the party.
+     */
+    @NotNull
+    public PartySnapshot toSnapshot() {
+        final List<PartyPlayerSnapshot> playerSnapshots = new ArrayList<>(players.size());
+        for(final PartyPlayer player : players) {
+            playerSnapshots.add(player.toSnapshot());
         }
-        document.append("players", playersDocument);
-
-        final List<String> invites = new ArrayList<>();
-        this.invites.forEach(invite -> invites.add(invite.toString()));
-        document.append("invites", invites);
 
-        return document;
+        return new PartySnapshot(this.nanoID.toString(), playerSnapshots, new ArrayList<>(this.invites));
     }
 
     /**
      * Updates the party in Redis.
+     * <b>Warning: Database operation. Call from the I/O executor.</b>
      */
     public void update() {
-        plugin.getRedis().set("jadedparty:parties:" + nanoID.toString(), toDocument().toJson());
-        plugin.getRedis().publish("jadedparty", "update " + this.nanoID);
+        plugin.getRedis().set(CacheKeys.PARTIES + nanoID.toString(), toDocument().toJson());
+        plugin.getRedis().publish(CacheKeys.PARTY_CHANNEL, "update " + this.nanoID);
+    }
+
+    /**
+     * Queues saving the party, and announcing the update, in a Redis transaction.
+     * @param transaction Transaction to queue the commands in.
+     */
+    public void update(@NotNull final Transaction transaction) {
+        transaction.set(CacheKeys.PARTIES + nanoID.toString(), toDocument().toJson());
+        transaction.publish(CacheKeys.PARTY_CHANNEL, "update " + this.nanoID);
     }
 
     public boolean hasPlayer(final Player player) {
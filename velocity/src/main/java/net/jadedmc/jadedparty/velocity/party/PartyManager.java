@@ -0,0 +1,476 @@
+/*
+ * This file is part of JadedParty, licensed under the MIT License.
+ *
+ *  Copyright (c) JadedMC
+ *  Copyright (c) contributors
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  of this software and associated documentation files (the "Software"), to deal
+ *  in the Software without restriction, including without limitation the rights
+ *  to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  copies of the Software, and to permit persons to whom the Software is
+ *  furnished to do so, subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all
+ *  copies or substantial portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  SOFTWARE.
+ */
+package net.jadedmc.jadedparty.velocity.party;
+
+import com.velocitypowered.api.proxy.ConnectionRequestBuilder;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ServerConnection;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import net.jadedmc.jadedparty.common.cache.CacheKeys;
+import net.jadedmc.jadedparty.common.party.PartyRole;
+import net.jadedmc.jadedparty.velocity.JadedPartyVelocity;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bson.Document;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Transaction;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages parties from the proxy.
+ * Players store the NanoID of their party, so a player's party is found with a single read instead of scanning every party.
+ * The proxy also keeps a local mirror of every party, kept up to date by the "party" channel,
+ * so party queries from the proxy don't need to read Redis.
+ * Redis reads for the mirror run on the I/O executor, queued per party so each party's updates stay in order.
+ */
+public class PartyManager {
+    private static final int MAX_ATTEMPTS = 8;
+    private final JadedPartyVelocity plugin;
+    private final Map<String, Party> parties = new ConcurrentHashMap<>();
+    private final Map<UUID, String> playerParties = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> partyTasks = new ConcurrentHashMap<>();
+    private final Set<String> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    /**
+     * Creates the party manager.
+     * @param plugin Instance of the plugin.
+     */
+    public PartyManager(@NotNull final JadedPartyVelocity plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Removes a player who left the network from their party on the I/O executor.
+     * Errors are logged instead of being thrown.
+     * @param playerUUID UUID of the player who disconnected.
+     * @return Future that completes once the player was removed.
+     */
+    @NotNull
+    public CompletableFuture<Void> handleDisconnectAsync(@NotNull final UUID playerUUID) {
+        return CompletableFuture.runAsync(() -> handleDisconnect(playerUUID), plugin.getIoExecutor())
+                .exceptionally(exception -> {
+                    plugin.getLogger().error("Could not remove " + playerUUID + " from their party.", exception);
+                    return null;
+                });
+    }
+
+    /**
+     * Removes a player who left the network from their party, and deletes their document.
+     * If they were the leader the party is disbanded, otherwise they leave it.
+     * Runs as a Redis transaction that is retried if the party changes in the meantime, so concurrent
+     * disconnects from the same party can't overwrite each other.
+     * <b>Warning: Database operation. Use {@link #handleDisconnectAsync(UUID)} from event handlers.</b>
+     * @param playerUUID UUID of the player who disconnected.
+     */
+    public void handleDisconnect(@NotNull final UUID playerUUID) {
+        final String playerKey = CacheKeys.PLAYERS + playerUUID;
+
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
+            for(int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                // Find the player's party from their document.
+                jedis.watch(playerKey);
+                final String playerJson = jedis.get(playerKey);
+                final String partyNanoID = playerJson == null ? null : Document.parse(playerJson).getString("party");
+
+                Party party = null;
+                if(partyNanoID != null) {
+                    final String partyKey = CacheKeys.PARTIES + partyNanoID;
+                    jedis.watch(partyKey);
+
+                    final String partyJson = jedis.get(partyKey);
+                    if(partyJson != null) {
+                        party = new Party(plugin, Document.parse(partyJson));
+                    }
+                }
+
+                final PartyPlayer partyPlayer = party == null ? null : party.getPlayer(playerUUID);
+                final Transaction transaction = jedis.multi();
+                transaction.del(playerKey);
+
+                if(partyPlayer != null) {
+                    if(partyPlayer.getRole() == PartyRole.LEADER) {
+                        party.sendMessage(transaction, "<green><bold>Party</bold> <dark_gray>» <green>The party has been disbanded!");
+                        party.removePlayer(playerUUID);
+                        party.disband(transaction);
+                    }
+                    else {
+                        party.sendMessage(transaction, "<green><bold>Party</bold> <dark_gray>» " + partyPlayer.getPrefix() + "<gray>" + partyPlayer.getName() + " <green>has left the party.");
+                        party.removePlayer(playerUUID);
+                        party.update(transaction);
+                    }
+                }
+
+                // Null means a watched key changed before the transaction ran, so try again with fresh data.
+                if(transaction.exec() != null) {
+                    return;
+                }
+            }
+        }
+
+        plugin.getLogger().warn("Could not remove {} from their party after {} attempts.", playerUUID, MAX_ATTEMPTS);
+    }
+
+    /**
+     * Gets a party from the local mirror, from its NanoID.
+     * @param nanoID NanoID of the party.
+     * @return Mirrored party, or null if it does not exist.
+     */
+    @Nullable
+    public Party getParty(@NotNull final String nanoID) {
+        return parties.get(nanoID);
+    }
+
+    /**
+     * Gets the party a player is in from the local mirror.
+     * @param playerUUID UUID of the player.
+     * @return Their party, or null if they are not in one.
+     */
+    @Nullable
+    public Party getParty(@NotNull final UUID playerUUID) {
+        final String nanoID = playerParties.get(playerUUID);
+
+        if(nanoID == null) {
+            return null;
+        }
+
+        return parties.get(nanoID);
+    }
+
+    /**
+     * Gets all parties in the local mirror.
+     * @return Read-only view of every mirrored party.
+     */
+    @NotNull
+    public Collection<Party> getParties() {
+        return Collections.unmodifiableCollection(parties.values());
+    }
+
+    /**
+     * Gets the UUIDs of everyone in a player's party, including the player.
+     * @param playerUUID UUID of the player.
+     * @return Members of their party, or an empty set if they are not in one.
+     */
+    @NotNull
+    public Set<UUID> getPartyMembers(@NotNull final UUID playerUUID) {
+        final Party party = getParty(playerUUID);
+
+        if(party == null) {
+            return Set.of();
+        }
+
+        final Set<UUID> members = new HashSet<>();
+        party.getPlayers().forEach(partyPlayer -> members.add(partyPlayer.getUniqueID()));
+        return members;
+    }
+
+    /**
+     * Gets the server a player's party should follow, which is the server their leader is connected to.
+     * @param playerUUID UUID of the player.
+     * @return Server of the party leader, or empty if the player is not in a party or the leader is not connected.
+     */
+    @NotNull
+    public Optional<RegisteredServer> getPartyServer(@NotNull final UUID playerUUID) {
+        final Party party = getParty(playerUUID);
+
+        if(party == null) {
+            return Optional.empty();
+        }
+
+        final PartyPlayer leader = party.getLeader();
+        if(leader == null) {
+            return Optional.empty();
+        }
+
+        return plugin.getProxyServer().getPlayer(leader.getUniqueID())
+                .flatMap(Player::getCurrentServer)
+                .map(ServerConnection::getServer);
+    }
+
+    /**
+     * Loads every party in Redis into the local mirror on the I/O executor.
+     * Called from the subscriber thread once it is listening, so no update is missed between the load and the first message.
+     * Errors are logged instead of being thrown.
+     * @return Future that completes once every party was loaded.
+     */
+    @NotNull
+    public CompletableFuture<Void> loadPartiesAsync() {
+        // Parties that change while loading are re-read by their own message instead.
+        loading = true;
+
+        return CompletableFuture.supplyAsync(this::loadParties, plugin.getIoExecutor())
+                .thenCompose(loaded -> loaded)
+                .whenComplete((result, exception) -> {
+                    loading = false;
+                    changedWhileLoading.clear();
+                })
+                .thenRun(() -> plugin.getLogger().info("Loaded {} parties from Redis.", parties.size()))
+                .exceptionally(exception -> {
+                    plugin.getLogger().error("Could not load the parties from Redis.", exception);
+                    return null;
+                });
+    }
+
+    /**
+     * Reads every party in Redis, and queues each one to be mirrored after any refresh already queued for it.
+     * <b>Warning: Database operation.</b>
+     * @return Future that completes once every party read was mirrored.
+     */
+    @NotNull
+    private CompletableFuture<Void> loadParties() {
+        final List<String> keys = new ArrayList<>();
+        final ScanParams params = new ScanParams().match(CacheKeys.PARTIES + "*").count(1000);
+        final List<String> documents;
+
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
+            String cursor = ScanParams.SCAN_POINTER_START;
+
+            do {
+                final ScanResult<String> result = jedis.scan(cursor, params);
+                keys.addAll(result.getResult());
+                cursor = result.getCursor();
+            }
+            while(!cursor.equals(ScanParams.SCAN_POINTER_START));
+
+            if(keys.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            documents = jedis.mget(keys.toArray(new String[0]));
+        }
+
+        final List<CompletableFuture<Void>> mirrored = new ArrayList<>();
+        for(final String json : documents) {
+            // Parties deleted since the scan come back as null.
+            if(json == null) {
+                continue;
+            }
+
+            final Party party = new Party(plugin, Document.parse(json));
+            final String nanoID = party.getNanoID().toString();
+
+            mirrored.add(enqueue(nanoID, () -> {
+                // A message for this party arrived after it was read, so the copy read here may be outdated.
+                if(!changedWhileLoading.contains(nanoID)) {
+                    mirrorParty(party);
+                }
+            }));
+        }
+
+        return CompletableFuture.allOf(mirrored.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Applies a message from the "party" channel to the local mirror.
+     * Called from the subscriber thread, which only dispatches: the Redis reads run on the I/O executor,
+     * one at a time for each party, so updates to the same party are still applied in the order they were published.
+     * @param message Message to be processed.
+     */
+    public void processMessage(@NotNull final String message) {
+        final String[] args = message.split(" ");
+
+        switch(args[0].toLowerCase()) {
+            // Forgets a disbanded party.
+            case "disband" -> dispatch(args[1], () -> removeParty(args[1]));
+
+            // Re-reads a party that changed.
+            case "join", "leave", "update" -> dispatch(args[1], () -> refreshParty(args[1]));
+
+            // Player documents hold their prefix, which is shown through the party.
+            case "updateplayer" -> {
+                final String nanoID = playerParties.get(UUID.fromString(args[1]));
+
+                if(nanoID != null) {
+                    dispatch(nanoID, () -> refreshParty(nanoID));
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a change to a party that was announced on the "party" channel.
+     * @param nanoID NanoID of the party that changed.
+     * @param task Change to apply to the mirror.
+     */
+    private void dispatch(@NotNull final String nanoID, @NotNull final Runnable task) {
+        if(loading) {
+            changedWhileLoading.add(nanoID);
+        }
+
+        enqueue(nanoID, task);
+    }
+
+    /**
+     * Runs a task on the I/O executor after every task already queued for the same party.
+     * Tasks for different parties run in parallel. Errors are logged, and do not stop later tasks.
+     * @param nanoID NanoID of the party the task is for.
+     * @param task Task to run.
+     * @return Future that completes once the task has run.
+     */
+    @NotNull
+    private CompletableFuture<Void> enqueue(@NotNull final String nanoID, @NotNull final Runnable task) {
+        final CompletableFuture<Void> queued = partyTasks.compute(nanoID, (key, previous) -> {
+            final CompletableFuture<Void> last = previous == null ? CompletableFuture.completedFuture(null) : previous;
+
+            return last.thenRunAsync(task, plugin.getIoExecutor())
+                    .exceptionally(exception -> {
+                        plugin.getLogger().error("Could not refresh party " + nanoID + ".", exception);
+                        return null;
+                    });
+        });
+
+        // Forget the queue once it is empty, so finished parties don't stay in memory.
+        queued.whenComplete((result, exception) -> partyTasks.remove(nanoID, queued));
+        return queued;
+    }
+
+    /**
+     * Replaces the mirrored copy of a party with the current one in Redis.
+     * Removes the party if it no longer exists.
+     * <b>Warning: Database operation.</b>
+     * @param nanoID NanoID of the party.
+     */
+    private void refreshParty(@NotNull final String nanoID) {
+        final String json;
+
+        try(Jedis jedis = plugin.getRedis().jedisPool().getResource()) {
+            json = jedis.get(CacheKeys.PARTIES + nanoID);
+        }
+
+        if(json == null) {
+            removeParty(nanoID);
+            return;
+        }
+
+        mirrorParty(new Party(plugin, Document.parse(json)));
+    }
+
+    /**
+     * Adds a party to the local mirror, replacing the previous copy and updating the player index.
+     * Mirrored parties are never modified after this, only replaced.
+     * @param party Party to mirror.
+     */
+    private void mirrorParty(@NotNull final Party party) {
+        final String nanoID = party.getNanoID().toString();
+        final Party previous = parties.put(nanoID, party);
+
+        // Index the current members first, so their party is never missing while it is replaced.
+        party.getPlayers().forEach(partyPlayer -> playerParties.put(partyPlayer.getUniqueID(), nanoID));
+
+        if(previous == null) {
+            return;
+        }
+
+        // Remove the players who are no longer in the party.
+        for(final PartyPlayer partyPlayer : previous.getPlayers()) {
+            if(party.getPlayer(partyPlayer.getUniqueID()) == null) {
+                playerParties.remove(partyPlayer.getUniqueID(), nanoID);
+            }
+        }
+    }
+
+    /**
+     * Removes a party, and its players, from the local mirror.
+     * @param nanoID NanoID of the party.
+     */
+    private void removeParty(@NotNull final String nanoID) {
+        final Party party = parties.remove(nanoID);
+
+        if(party == null) {
+            return;
+        }
+
+        party.getPlayers().forEach(partyPlayer -> playerParties.remove(partyPlayer.getUniqueID(), nanoID));
+    }
+
+    /**
+     * Moves a group of players to a server.
+     * Every connection is started at once, instead of waiting for each player to finish connecting.
+     * Players who are not on this proxy, or already on the server, are skipped.
+     * Members that could not be moved are logged individually.
+     * @param playerUUIDs UUIDs of the players to move.
+     * @param serverName Name of the server to move them to.
+     * @return Future that completes once every connection attempt has finished.
+     */
+    @NotNull
+    public CompletableFuture<Void> connect(@NotNull final Collection<UUID> playerUUIDs, @NotNull final String serverName) {
+        final Optional<RegisteredServer> server = plugin.getProxyServer().getServer(serverName);
+
+        if(server.isEmpty()) {
+            plugin.getLogger().warn("Could not move {} players to {}: Server does not exist.", playerUUIDs.size(), serverName);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final List<CompletableFuture<?>> connections = new ArrayList<>();
+        for(final UUID playerUUID : playerUUIDs) {
+            final Player player = plugin.getProxyServer().getPlayer(playerUUID).orElse(null);
+
+            // Players on other proxies are moved by their own proxy.
+            if(player == null) {
+                continue;
+            }
+
+            final boolean connected = player.getCurrentServer()
+                    .map(connection -> connection.getServer().equals(server.get()))
+                    .orElse(false);
+            if(connected) {
+                continue;
+            }
+
+            connections.add(player.createConnectionRequest(server.get()).connect()
+                    .thenAccept(result -> {
+                        if(!result.isSuccessful()) {
+                            logFailedConnection(player, serverName, result);
+                        }
+                    })
+                    .exceptionally(exception -> {
+                        plugin.getLogger().warn("Could not move " + player.getUsername() + " to " + serverName + ".", exception);
+                        return null;
+                    }));
+        }
+
+        return CompletableFuture.allOf(connections.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Logs why a player could not be moved to a server.
+     * @param player Player who was being moved.
+     * @param serverName Name of the server they were being moved to.
+     * @param result Result of the connection attempt.
+     */
+    private void logFailedConnection(@NotNull final Player player, @NotNull final String serverName, @NotNull final ConnectionRequestBuilder.Result result) {
+        final String reason = result.getReasonComponent()
+                .map(component -> PlainTextComponentSerializer.plainText().serialize(component))
+                .orElse("No reason given");
+
+        plugin.getLogger().warn("Could not move {} to {}: {} ({}).", player.getUsername(), serverName, result.getStatus(), reason);
+    }
+}
@@ -1,7 +1,10 @@
 package net.jadedmc.jadedparty.velocity.party;
 
+import net.jadedmc.jadedparty.common.party.PartyPlayerSnapshot;
+import net.jadedmc.jadedparty.common.party.PartyRole;
 import org.bson.Document;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 
@@ -10,12 +13,22 @@ public class PartyPlayer {
     private final String username;
     private PartyRole role;
     private String prefix;
+    private String party;
 
     public PartyPlayer(@NotNull final Document document) {
-        this.uuid = UUID.fromString(document.getString("uuid"));
-        this.username = document.getString("username");
-        this.role = PartyRole.valueOf(document.getString("role"));
-        this.prefix = document.getString("prefix");
+        this(PartyPlayerSnapshot.fromDocument(document));
+    }
+
+    /**
+     * Creates the player from a snapshot of their state.
+     * @param snapshot Snapshot to use.
+     */
+    public PartyPlayer(@NotNull final PartyPlayerSnapshot snapshot) {
+        this.uuid = snapshot.uniqueId();
+        this.username = snapshot.username();
+        this.role = snapshot.role();
+        this.prefix = snapshot.prefix();
+        this.party = snapshot.party();
     }
 
     public PartyRole getRole() {
@@ -30,15 +43,38 @@ public class PartyPlayer {
         return this.username;
     }
 
+    /**
+     * Gets the NanoID of the party the player is in.
+     * @return NanoID of their party, or null if they are not in one.
+     */
+    @Nullable
+    public String getParty() {
+        return party;
+    }
+
+    /**
+     * Sets the NanoID of the party the player is in.
+     * @param party NanoID of their party, or null if they left it.
+     */
+    public void setParty(@Nullable final String party) {
+        this.party = party;
+    }
+
     public void setRole(final PartyRole role) {
         this.role = role;
     }
 
     public Document toDocument() {
-        return new Document()
-                .append("uuid", this.uuid.toString())
-                .append("username", this.username)
-                .append("role", role.toString());
+        return toSnapshot().toDocument();
+    }
+
+    /**
+     * Creates an immutable snapshot of the player's current state.
+     * @return Snapshot of the player.
+     */
+    @NotNull
+    public PartyPlayerSnapshot toSnapshot() {
+        return new PartyPlayerSnapshot(this.uuid, this.username, this.role, this.prefix, this.party);
     }
 
     public String getPrefix() {
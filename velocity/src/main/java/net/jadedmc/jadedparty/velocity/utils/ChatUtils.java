@@ -24,41 +24,21 @@
  */
 package net.jadedmc.jadedparty.velocity.utils;
 
-import java.util.Arrays;
-import java.util.List;
+import net.jadedmc.jadedparty.common.utils.ColorUtils;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
 
 /**
- * A collection of String-related utilities.
+ * Some methods to make sending chat messages easier.
  */
-public class StringUtils {
+public class ChatUtils {
 
     /**
-     * Join multiple strings together into one string.
-     * @param args List of strings to join together.
-     * @param separator What should be between each string.
-     * @return Combined string.
+     * Translates a MiniMessage message, which may contain legacy color codes, into a component.
+     * @param message Message to translate.
+     * @return Translated message.
      */
-    public static String join(List<String> args, String separator) {
-        StringBuilder temp = new StringBuilder();
-
-        for(String str : args) {
-            if(!temp.toString().equals("")) {
-                temp.append(separator);
-            }
-
-            temp.append(str);
-        }
-
-        return temp.toString();
-    }
-
-    /**
-     * Join multiple strings together into one string.
-     * @param args Array of strings to join together.
-     * @param separator What should be between each string.
-     * @return Combined string.
-     */
-    public static String join(String[] args, String separator) {
-        return join(Arrays.asList(args), separator);
+    public static Component translate(String message) {
+        return MiniMessage.miniMessage().deserialize(ColorUtils.replaceLegacy(message, true));
     }
-}
\ No newline at end of file
+}